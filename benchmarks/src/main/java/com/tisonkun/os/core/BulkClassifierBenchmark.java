@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link BulkClassifier} in rows per second over columnar telemetry-like input. Every row holds
+ * distinct string instances, as if deserialized, drawn from a small set of platforms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BulkClassifierBenchmark {
+    private static final int ROWS = 1 << 16;
+
+    private static final String[][] PLATFORMS = {
+        {"Linux", "amd64", "64"},
+        {"Linux", "aarch64", "64"},
+        {"Mac OS X", "aarch64", "64"},
+        {"Mac OS X", "x86_64", "64"},
+        {"Windows 10", "amd64", "64"},
+        {"Windows 11", "x86", "32"},
+        {"FreeBSD", "amd64", "64"},
+        {"Linux", "ppc64le", "64"},
+    };
+
+    @Param({"0", "256"})
+    public int cacheSize;
+
+    private BulkClassifier classifier;
+    private String[] osNames;
+    private String[] osArchs;
+    private String[] dataModels;
+
+    @Setup
+    public void setup() {
+        classifier = new BulkClassifier(cacheSize);
+        osNames = new String[ROWS];
+        osArchs = new String[ROWS];
+        dataModels = new String[ROWS];
+        final Random random = new Random(42);
+        for (int i = 0; i < ROWS; i++) {
+            final String[] platform = PLATFORMS[random.nextInt(PLATFORMS.length)];
+            osNames[i] = new String(platform[0]);
+            osArchs[i] = new String(platform[1]);
+            dataModels[i] = new String(platform[2]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int[] classify() {
+        return classifier.classify(osNames, osArchs, dataModels);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int[] classifyParallel() {
+        return classifier.classifyParallel(osNames, osArchs, dataModels);
+    }
+}
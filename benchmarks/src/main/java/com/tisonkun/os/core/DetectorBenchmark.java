@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end cost of {@link Detector#detect()} and {@link Detector#detect(Properties)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DetectorBenchmark {
+    @Param({
+        "Linux|amd64|6.5.0|64",
+        "Linux|aarch64|6.5.0|64",
+        "Linux|i386|5.4.0|",
+        "Mac OS X|aarch64|14.4|64",
+        "Windows 11|amd64|10.0|64",
+        "AIX|ppc64|7.2|64"
+    })
+    public String platform;
+
+    @Param({"ubuntu", "missing"})
+    public String release;
+
+    private static final DetectionSpec CLASSIFIER_ONLY = DetectionSpec.builder()
+            .bitness(false)
+            .version(false)
+            .linuxRelease(false)
+            .build();
+
+    private Detector detector;
+
+    @Setup
+    public void setup() {
+        detector = new Detector(Fixtures.properties(platform), Fixtures.files(release), message -> {});
+    }
+
+    @Benchmark
+    public Detected detect() {
+        return detector.detect();
+    }
+
+    @Benchmark
+    public Detected detectClassifierOnly() {
+        return detector.detect(CLASSIFIER_ONLY);
+    }
+
+    @Benchmark
+    public LazyDetected detectLazily() {
+        return detector.detectLazily();
+    }
+
+    @Benchmark
+    public Properties detectProperties() {
+        final Properties props = new Properties();
+        detector.detect(props);
+        return props;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+/**
+ * Platform inputs and release files shared by the benchmarks.
+ */
+final class Fixtures {
+    static final String OS_RELEASE = "/etc/os-release";
+    static final String USR_LIB_OS_RELEASE = "/usr/lib/os-release";
+    static final String REDHAT_RELEASE = "/etc/redhat-release";
+
+    private static final String UBUNTU = "PRETTY_NAME=\"Ubuntu 22.04.4 LTS\"\n"
+            + "NAME=\"Ubuntu\"\n"
+            + "VERSION_ID=\"22.04\"\n"
+            + "VERSION=\"22.04.4 LTS (Jammy Jellyfish)\"\n"
+            + "VERSION_CODENAME=jammy\n"
+            + "ID=ubuntu\n"
+            + "ID_LIKE=debian\n"
+            + "HOME_URL=\"https://www.ubuntu.com/\"\n"
+            + "SUPPORT_URL=\"https://help.ubuntu.com/\"\n"
+            + "BUG_REPORT_URL=\"https://bugs.launchpad.net/ubuntu/\"\n"
+            + "PRIVACY_POLICY_URL=\"https://www.ubuntu.com/legal/terms-and-policies/privacy-policy\"\n"
+            + "UBUNTU_CODENAME=jammy\n";
+
+    private static final String ALPINE = "NAME=\"Alpine Linux\"\n"
+            + "ID=alpine\n"
+            + "VERSION_ID=3.19.1\n"
+            + "PRETTY_NAME=\"Alpine Linux v3.19\"\n"
+            + "HOME_URL=\"https://alpinelinux.org/\"\n"
+            + "BUG_REPORT_URL=\"https://gitlab.alpinelinux.org/alpine/aports/-/issues\"\n";
+
+    private static final String RHEL = "NAME=\"Red Hat Enterprise Linux\"\n"
+            + "VERSION=\"9.3 (Plow)\"\n"
+            + "ID=\"rhel\"\n"
+            + "ID_LIKE=\"fedora\"\n"
+            + "VERSION_ID=\"9.3\"\n"
+            + "PLATFORM_ID=\"platform:el9\"\n"
+            + "PRETTY_NAME=\"Red Hat Enterprise Linux 9.3 (Plow)\"\n"
+            + "ANSI_COLOR=\"0;31\"\n"
+            + "LOGO=\"fedora-logo-icon\"\n"
+            + "CPE_NAME=\"cpe:/o:redhat:enterprise_linux:9::baseos\"\n"
+            + "HOME_URL=\"https://www.redhat.com/\"\n"
+            + "DOCUMENTATION_URL=\"https://access.redhat.com/documentation/en-us/red_hat_enterprise_linux/9\"\n"
+            + "BUG_REPORT_URL=\"https://bugzilla.redhat.com/\"\n"
+            + "REDHAT_BUGZILLA_PRODUCT=\"Red Hat Enterprise Linux 9\"\n"
+            + "REDHAT_BUGZILLA_PRODUCT_VERSION=9.3\n"
+            + "REDHAT_SUPPORT_PRODUCT=\"Red Hat Enterprise Linux\"\n"
+            + "REDHAT_SUPPORT_PRODUCT_VERSION=\"9.3\"\n";
+
+    private static final String FEDORA = "NAME=\"Fedora Linux\"\n"
+            + "VERSION=\"39 (Container Image)\"\n"
+            + "ID=fedora\n"
+            + "VERSION_ID=39\n"
+            + "VERSION_CODENAME=\"\"\n"
+            + "PLATFORM_ID=\"platform:f39\"\n"
+            + "PRETTY_NAME=\"Fedora Linux 39 (Container Image)\"\n"
+            + "ANSI_COLOR=\"0;38;2;60;110;180\"\n"
+            + "LOGO=fedora-logo-icon\n"
+            + "CPE_NAME=\"cpe:/o:fedoraproject:fedora:39\"\n"
+            + "DEFAULT_HOSTNAME=\"fedora\"\n"
+            + "HOME_URL=\"https://fedoraproject.org/\"\n"
+            + "SUPPORT_URL=\"https://ask.fedoraproject.org/\"\n"
+            + "BUG_REPORT_URL=\"https://bugzilla.redhat.com/\"\n"
+            + "VARIANT=\"Container Image\"\n"
+            + "VARIANT_ID=container\n";
+
+    private static final String CENTOS6_REDHAT_RELEASE = "CentOS release 6.10 (Final)\n";
+
+    private Fixtures() {}
+
+    /**
+     * Returns the release files of the named fixture.
+     *
+     * <ul>
+     * <li>{@code ubuntu}, {@code alpine}, {@code rhel}, {@code fedora} - {@code /etc/os-release} only</li>
+     * <li>{@code usrlib} - no {@code /etc/os-release}, ubuntu content in {@code /usr/lib/os-release}</li>
+     * <li>{@code centos6} - no os-release files, only {@code /etc/redhat-release}</li>
+     * <li>{@code missing} - no release files at all</li>
+     * </ul>
+     */
+    static InMemoryFileOperations files(String release) {
+        final InMemoryFileOperations files = new InMemoryFileOperations();
+        switch (release) {
+            case "ubuntu":
+                return files.withFile(OS_RELEASE, UBUNTU);
+            case "alpine":
+                return files.withFile(OS_RELEASE, ALPINE);
+            case "rhel":
+                return files.withFile(OS_RELEASE, RHEL);
+            case "fedora":
+                return files.withFile(OS_RELEASE, FEDORA);
+            case "usrlib":
+                return files.withFile(USR_LIB_OS_RELEASE, UBUNTU);
+            case "centos6":
+                return files.withFile(REDHAT_RELEASE, CENTOS6_REDHAT_RELEASE);
+            case "missing":
+                return files;
+            default:
+                throw new IllegalArgumentException("unknown release fixture: " + release);
+        }
+    }
+
+    /**
+     * Returns the system properties of a platform given as {@code os.name|os.arch|os.version|sun.arch.data.model}.
+     * An empty {@code sun.arch.data.model} leaves the property unset so that bitness falls back to a guess.
+     */
+    static InMemorySystemPropertyOperations properties(String platform) {
+        final String[] parts = platform.split("\\|", -1);
+        final InMemorySystemPropertyOperations properties = new InMemorySystemPropertyOperations()
+                .with("os.name", parts[0])
+                .with("os.arch", parts[1])
+                .with("os.version", parts[2])
+                .with("failOnUnknownOS", "false");
+        if (!parts[3].isEmpty()) {
+            properties.with("sun.arch.data.model", parts[3]);
+        }
+        return properties;
+    }
+}
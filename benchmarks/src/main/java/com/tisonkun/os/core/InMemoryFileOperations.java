@@ -0,0 +1,55 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link FileOperationProvider} serving fixed file contents from memory.
+ */
+final class InMemoryFileOperations implements FileOperationProvider {
+    private final Map<String, byte[]> files = new HashMap<>();
+
+    InMemoryFileOperations withFile(String filePath, String content) {
+        files.put(filePath, content.getBytes(StandardCharsets.UTF_8));
+        return this;
+    }
+
+    @Override
+    public InputStream readFile(String filePath) throws NoSuchFileException {
+        final byte[] content = files.get(filePath);
+        if (content == null) {
+            throw new NoSuchFileException(filePath);
+        }
+        return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public ByteBuffer readFileBytes(String filePath) throws NoSuchFileException {
+        final byte[] content = files.get(filePath);
+        if (content == null) {
+            throw new NoSuchFileException(filePath);
+        }
+        return ByteBuffer.wrap(content).asReadOnlyBuffer();
+    }
+}
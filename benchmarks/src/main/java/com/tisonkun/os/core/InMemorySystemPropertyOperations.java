@@ -0,0 +1,47 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link SystemPropertyOperationProvider} backed by a private map instead of the JVM system properties.
+ */
+final class InMemorySystemPropertyOperations implements SystemPropertyOperationProvider {
+    private final Map<String, String> properties = new HashMap<>();
+
+    InMemorySystemPropertyOperations with(String name, String value) {
+        properties.put(name, value);
+        return this;
+    }
+
+    @Override
+    public String getSystemProperty(String name) {
+        return properties.get(name);
+    }
+
+    @Override
+    public String getSystemProperty(String name, String defaultValue) {
+        return properties.getOrDefault(name, defaultValue);
+    }
+
+    @Override
+    public String setSystemProperty(String name, String value) {
+        return properties.put(name, value);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of reading and parsing the Linux release files, see {@link Fixtures#files(String)} for the fixtures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LinuxReleaseBenchmark {
+    @Param({"ubuntu", "alpine", "rhel", "fedora", "usrlib", "centos6", "missing"})
+    public String release;
+
+    private Detector detector;
+
+    @Setup
+    public void setup() {
+        detector = new Detector(Fixtures.properties("Linux|amd64|6.5.0|64"), Fixtures.files(release), message -> {});
+    }
+
+    @Benchmark
+    public LinuxRelease parseOsReleaseFile() {
+        return detector.parseLinuxOsReleaseFile(Fixtures.OS_RELEASE);
+    }
+
+    @Benchmark
+    public LinuxRelease parseRedhatReleaseFile() {
+        return detector.parseLinuxRedhatReleaseFile();
+    }
+
+    @Benchmark
+    public LinuxRelease linuxRelease() {
+        return detector.getLinuxRelease();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-platform lookups keyed by the detected platform: a {@link PlatformMap} against a {@link HashMap} keyed by
+ * classifier strings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PlatformMapBenchmark {
+    private final PlatformMap<Object> platformMap = new PlatformMap<>();
+    private final Map<String, Object> classifierMap = new HashMap<>();
+    private Detected detected;
+
+    @Setup
+    public void setup() {
+        for (OS os : OS.values()) {
+            for (Arch arch : Arch.values()) {
+                final Object value = new Object();
+                platformMap.put(os, arch, value);
+                classifierMap.put(Detector.classifier(os, arch), value);
+            }
+        }
+        // A classifier that is equal to but not the same instance as the map key, as read from configuration.
+        detected = new Detected(64, "6.8.0", new String("linux-x86_64".toCharArray()), OS.linux, Arch.x86_64, null);
+    }
+
+    @Benchmark
+    public Object platformMap() {
+        return platformMap.get(detected);
+    }
+
+    @Benchmark
+    public Object classifierMap() {
+        return classifierMap.get(detected.classifier);
+    }
+}
@@ -17,3 +17,23 @@
 plugins {
     id("java-publish")
 }
+
+// Classes for Java 11 and later, packaged under META-INF/versions/11 of a multi-release jar. They replace
+// the Java 8 classes of the same name, e.g., to emit Java Flight Recorder events.
+val java11: SourceSet by sourceSets.creating {
+    java.srcDir("src/main/java11")
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+}
+
+tasks.named<JavaCompile>(java11.compileJavaTaskName) {
+    options.release.set(11)
+}
+
+tasks.jar {
+    into("META-INF/versions/11") {
+        from(java11.output)
+    }
+    manifest {
+        attributes("Multi-Release" to "true")
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * An immutable trie over normalized tokens, i.e., tokens made of {@code [a-z0-9]} only, mapping aliases to
+ * enum constants. A lookup normalizes the value while walking the trie once and allocates nothing.
+ */
+final class AliasIndex<E extends Enum<E>> {
+    /**
+     * Matches the token only.
+     */
+    static final byte EXACT = 1;
+    /**
+     * Matches the token and any token starting with it.
+     */
+    static final byte PREFIX = 2;
+    /**
+     * Like {@link #PREFIX}, but doesn't match if the token is followed by a digit, e.g., {@code os400} doesn't
+     * match {@code os4000}.
+     */
+    static final byte PREFIX_NOT_DIGIT = 3;
+
+    private static final int ALPHABET_SIZE = 36;
+
+    private final E[] constants;
+    // children[node * ALPHABET_SIZE + symbol] is the child node, or 0 if absent; the root node 0 is never a child.
+    private final int[] children;
+    // values[node] is the ordinal of the constant the node resolves to, or -1.
+    private final int[] values;
+    private final byte[] modes;
+
+    /**
+     * Builds an index from aliases mapped to their constant and match mode.
+     */
+    AliasIndex(Class<E> type, Map<String, Alias<E>> aliases) {
+        this.constants = type.getEnumConstants();
+        int capacity = 1;
+        for (String token : aliases.keySet()) {
+            capacity += token.length();
+        }
+        int[] children = new int[capacity * ALPHABET_SIZE];
+        int[] values = new int[capacity];
+        byte[] modes = new byte[capacity];
+        Arrays.fill(values, -1);
+        int nodes = 1;
+        for (Map.Entry<String, Alias<E>> entry : aliases.entrySet()) {
+            final String token = entry.getKey();
+            int node = 0;
+            for (int i = 0; i < token.length(); i++) {
+                final int symbol = symbol(token.charAt(i));
+                if (symbol < 0) {
+                    throw new IllegalArgumentException("alias is not normalized: " + token);
+                }
+                final int slot = node * ALPHABET_SIZE + symbol;
+                if (children[slot] == 0) {
+                    children[slot] = nodes++;
+                }
+                node = children[slot];
+            }
+            values[node] = entry.getValue().constant.ordinal();
+            modes[node] = entry.getValue().mode;
+        }
+        this.children = Arrays.copyOf(children, nodes * ALPHABET_SIZE);
+        this.values = Arrays.copyOf(values, nodes);
+        this.modes = Arrays.copyOf(modes, nodes);
+    }
+
+    /**
+     * Resolves a value to the constant of the longest matching alias, or returns {@code fallback}. The value is
+     * normalized on the fly, see {@link Detector#normalizeChar(char)}.
+     */
+    E resolve(CharSequence value, E fallback) {
+        int match = -1;
+        int node = 0;
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            final char c = Detector.normalizeChar(value.charAt(i));
+            if (c == 0) {
+                continue;
+            }
+            if (modes[node] != 0 && matchesBefore(modes[node], c)) {
+                match = values[node];
+            }
+            node = children[node * ALPHABET_SIZE + symbol(c)];
+            if (node == 0) {
+                return match < 0 ? fallback : constants[match];
+            }
+        }
+        if (modes[node] != 0) {
+            match = values[node];
+        }
+        return match < 0 ? fallback : constants[match];
+    }
+
+    // Whether an alias of the given mode matches if the normalized value continues with c.
+    private static boolean matchesBefore(byte mode, char c) {
+        switch (mode) {
+            case PREFIX:
+                return true;
+            case PREFIX_NOT_DIGIT:
+                return c < '0' || c > '9';
+            default:
+                return false;
+        }
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c >= '0' && c <= '9') {
+            return 26 + c - '0';
+        }
+        return -1;
+    }
+
+    static final class Alias<E extends Enum<E>> {
+        final E constant;
+        final byte mode;
+
+        Alias(E constant, byte mode) {
+            this.constant = constant;
+            this.mode = mode;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Classifies many {@code (os.name, os.arch, sun.arch.data.model, com.ibm.vm.bitmode)} tuples, e.g., collected
+ * from client telemetry, with the same normalization and bitness rules as {@link Detector} but without per-row
+ * provider objects. {@code os.version} does not take part in the classification and is therefore not an input.
+ *
+ * <p>Each tuple is classified into a packed {@code int} code holding the {@link OS} ordinal, the {@link Arch}
+ * ordinal and the bitness, which is guessed from the architecture if it doesn't fit in 16 bits; decode it with
+ * {@link #os(int)}, {@link #arch(int)}, {@link #bitness(int)} and {@link #classifier(int)}. Repeated tuples are
+ * served from a small direct-mapped cache. Instances are thread-safe and can be shared by parallel streams.
+ */
+public final class BulkClassifier {
+    private static final OS[] OSES = OS.values();
+    private static final Arch[] ARCHES = Arch.values();
+    private static final int DEFAULT_CACHE_SIZE = 256;
+    private static final int MAX_CACHE_SIZE = 1 << 16;
+
+    private final Entry[] cache;
+    private final int mask;
+
+    public BulkClassifier() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a classifier with a cache of the given number of entries, rounded up to a power of two.
+     * A size of {@code 0} disables the cache.
+     *
+     * @throws IllegalArgumentException if the size is negative or greater than {@code 65536}
+     */
+    public BulkClassifier(int cacheSize) {
+        if (cacheSize < 0 || cacheSize > MAX_CACHE_SIZE) {
+            throw new IllegalArgumentException("cacheSize must be between 0 and " + MAX_CACHE_SIZE + ": " + cacheSize);
+        }
+        final int size = Integer.bitCount(cacheSize) <= 1 ? cacheSize : Integer.highestOneBit(cacheSize) << 1;
+        this.cache = new Entry[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Classifies one tuple without {@code com.ibm.vm.bitmode}. {@code dataModel} is the value of
+     * {@code sun.arch.data.model} and may be {@code null}, in which case the bitness is guessed from the
+     * architecture.
+     */
+    public int classify(String osName, String osArch, String dataModel) {
+        return classify(osName, osArch, dataModel, null);
+    }
+
+    /**
+     * Classifies one tuple. Like {@link Detector}, the bitness is taken from {@code dataModel}, the value of
+     * {@code sun.arch.data.model}, then from {@code bitMode}, the value of {@code com.ibm.vm.bitmode}, and is
+     * guessed from the architecture if neither is a number. Both may be {@code null}.
+     */
+    public int classify(String osName, String osArch, String dataModel, String bitMode) {
+        if (cache.length == 0) {
+            return compute(osName, osArch, dataModel, bitMode);
+        }
+        final int hash = hash(osName, osArch, dataModel, bitMode);
+        final int slot = hash & mask;
+        final Entry entry = cache[slot];
+        if (entry != null && entry.matches(hash, osName, osArch, dataModel, bitMode)) {
+            return entry.code;
+        }
+        final int code = compute(osName, osArch, dataModel, bitMode);
+        // Entries are immutable, so a racy write at worst evicts another thread's entry.
+        cache[slot] = new Entry(hash, osName, osArch, dataModel, bitMode, code);
+        return code;
+    }
+
+    /**
+     * Classifies columnar input: row {@code i} is {@code (osNames[i], osArchs[i], dataModels[i])}.
+     * {@code dataModels} may be {@code null} to guess every bitness from the architecture.
+     */
+    public int[] classify(String[] osNames, String[] osArchs, String[] dataModels) {
+        return classify(osNames, osArchs, dataModels, null);
+    }
+
+    /**
+     * Classifies columnar input: row {@code i} is {@code (osNames[i], osArchs[i], dataModels[i], bitModes[i])}.
+     * {@code dataModels} and {@code bitModes} may be {@code null} if the column was not collected.
+     */
+    public int[] classify(String[] osNames, String[] osArchs, String[] dataModels, String[] bitModes) {
+        final int[] codes = new int[checkColumns(osNames, osArchs, dataModels, bitModes)];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = classifyRow(osNames, osArchs, dataModels, bitModes, i);
+        }
+        return codes;
+    }
+
+    /**
+     * Like {@link #classify(String[], String[], String[])}, but classifies the rows in parallel on the
+     * common fork-join pool.
+     */
+    public int[] classifyParallel(String[] osNames, String[] osArchs, String[] dataModels) {
+        return classifyParallel(osNames, osArchs, dataModels, null);
+    }
+
+    /**
+     * Like {@link #classify(String[], String[], String[], String[])}, but classifies the rows in parallel on
+     * the common fork-join pool.
+     */
+    public int[] classifyParallel(String[] osNames, String[] osArchs, String[] dataModels, String[] bitModes) {
+        final int[] codes = new int[checkColumns(osNames, osArchs, dataModels, bitModes)];
+        IntStream.range(0, codes.length)
+                .parallel()
+                .forEach(i -> codes[i] = classifyRow(osNames, osArchs, dataModels, bitModes, i));
+        return codes;
+    }
+
+    /**
+     * Classifies a stream of {@code {os.name, os.arch, sun.arch.data.model, com.ibm.vm.bitmode}} tuples, in
+     * parallel if the stream is parallel. The data model and the bit mode may be {@code null} or omitted.
+     */
+    public IntStream classify(Stream<String[]> tuples) {
+        return tuples.mapToInt(tuple ->
+                classify(tuple[0], tuple[1], tuple.length > 2 ? tuple[2] : null, tuple.length > 3 ? tuple[3] : null));
+    }
+
+    private int classifyRow(String[] osNames, String[] osArchs, String[] dataModels, String[] bitModes, int i) {
+        return classify(
+                osNames[i],
+                osArchs[i],
+                dataModels == null ? null : dataModels[i],
+                bitModes == null ? null : bitModes[i]);
+    }
+
+    public static OS os(int code) {
+        return OSES[code & 0xFF];
+    }
+
+    public static Arch arch(int code) {
+        return ARCHES[(code >>> 8) & 0xFF];
+    }
+
+    public static int bitness(int code) {
+        return code >>> 16;
+    }
+
+    /**
+     * Returns the interned classifier of the code, e.g., {@code linux-x86_64}.
+     */
+    public static String classifier(int code) {
+        return Detector.classifier(os(code), arch(code));
+    }
+
+    private static int compute(String osName, String osArch, String dataModel, String bitMode) {
+        final OS os = PlatformAliases.resolveOs(osName);
+        final Arch arch = PlatformAliases.resolveArch(osArch);
+        int bitness = Detector.parseBitness(dataModel);
+        if (bitness < 0) {
+            bitness = Detector.parseBitness(bitMode);
+        }
+        if (bitness < 0 || bitness > 0xFFFF) {
+            bitness = Detector.guessBitnessFromArchitecture(arch.name());
+        }
+        return os.ordinal() | arch.ordinal() << 8 | bitness << 16;
+    }
+
+    private static int checkColumns(String[] osNames, String[] osArchs, String[] dataModels, String[] bitModes) {
+        if (osNames.length != osArchs.length
+                || dataModels != null && dataModels.length != osNames.length
+                || bitModes != null && bitModes.length != osNames.length) {
+            throw new IllegalArgumentException("columns must have the same length");
+        }
+        return osNames.length;
+    }
+
+    private static int hash(String osName, String osArch, String dataModel, String bitMode) {
+        int h = Objects.hashCode(osName);
+        h = h * 31 + Objects.hashCode(osArch);
+        h = h * 31 + Objects.hashCode(dataModel);
+        h = h * 31 + Objects.hashCode(bitMode);
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Entry {
+        private final int hash;
+        private final String osName;
+        private final String osArch;
+        private final String dataModel;
+        private final String bitMode;
+        private final int code;
+
+        private Entry(int hash, String osName, String osArch, String dataModel, String bitMode, int code) {
+            this.hash = hash;
+            this.osName = osName;
+            this.osArch = osArch;
+            this.dataModel = dataModel;
+            this.bitMode = bitMode;
+            this.code = code;
+        }
+
+        private boolean matches(int hash, String osName, String osArch, String dataModel, String bitMode) {
+            return this.hash == hash
+                    && Objects.equals(this.osName, osName)
+                    && Objects.equals(this.osArch, osArch)
+                    && Objects.equals(this.dataModel, dataModel)
+                    && Objects.equals(this.bitMode, bitMode);
+        }
+    }
+}
@@ -18,8 +18,12 @@ package com.tisonkun.os.core;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * Default implementation for {@link FileOperationProvider}.
@@ -29,4 +33,26 @@ public class DefaultFileOperations implements FileOperationProvider {
     public InputStream readFile(String filePath) throws IOException {
         return Files.newInputStream(Paths.get(filePath));
     }
+
+    @Override
+    public ByteBuffer readFileBytes(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            // Release files are far smaller than a page, so reading them is cheaper than mapping them.
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(filePath + " is too large");
+            }
+            final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                // keep reading until full or EOF
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    @Override
+    public BasicFileAttributes readAttributes(String filePath) throws IOException {
+        return Files.readAttributes(Paths.get(filePath), BasicFileAttributes.class);
+    }
 }
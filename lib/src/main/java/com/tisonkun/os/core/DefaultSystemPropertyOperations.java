@@ -16,6 +16,8 @@
 
 package com.tisonkun.os.core;
 
+import java.util.Map;
+
 /**
  * Default implementation for {@link SystemPropertyOperationProvider} based on {@link System} APIs.
  */
@@ -34,4 +36,17 @@ public class DefaultSystemPropertyOperations implements SystemPropertyOperationP
     public String setSystemProperty(String name, String value) {
         return System.setProperty(name, value);
     }
+
+    /**
+     * Only writes the properties whose value changed, through {@link System#setProperty(String, String)} so that
+     * the key checks and the security manager apply as for a single property.
+     */
+    @Override
+    public void setSystemProperties(Map<String, String> properties) {
+        for (Map.Entry<String, String> e : properties.entrySet()) {
+            if (!e.getValue().equals(System.getProperty(e.getKey()))) {
+                System.setProperty(e.getKey(), e.getValue());
+            }
+        }
+    }
 }
@@ -30,4 +30,11 @@ public class Detected {
     public final OS os;
     public final Arch arch;
     public final LinuxRelease linuxRelease;
+
+    /**
+     * Returns the {@link PlatformKey} packing this result into a {@code long}.
+     */
+    public long toKey() {
+        return PlatformKey.of(this);
+    }
 }
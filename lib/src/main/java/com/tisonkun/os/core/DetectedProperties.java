@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An immutable view of the properties published by {@link Detector#detect(Properties)}, e.g.,
+ * {@code os.detected.classifier}, including the {@code os.detected.release.like.*} keys.
+ *
+ * <p>Keys and values are computed once and kept in two arrays in publishing order, so that the view can be
+ * read directly instead of copying it into a {@link Properties}.
+ */
+public final class DetectedProperties {
+    private static final Pattern VERSION_REGEX = Pattern.compile("((\\d+)\\.(\\d+)).*");
+
+    private final Detected detected;
+    private final String[] keys;
+    private final String[] values;
+
+    private DetectedProperties(Detected detected, String[] keys, String[] values) {
+        this.detected = detected;
+        this.keys = keys;
+        this.values = values;
+    }
+
+    public static DetectedProperties of(Detected detected) {
+        final LinuxRelease linuxRelease = detected.linuxRelease;
+        final int capacity = 7 + (linuxRelease == null ? 0 : 2 + linuxRelease.likes.size());
+        final String[] keys = new String[capacity];
+        final String[] values = new String[capacity];
+        int n = 0;
+
+        keys[n] = Detector.DETECTED_NAME;
+        values[n++] = detected.os.name();
+        keys[n] = Detector.DETECTED_ARCH;
+        values[n++] = detected.arch.name();
+        keys[n] = Detector.DETECTED_BITNESS;
+        values[n++] = String.valueOf(detected.bitness);
+
+        if (detected.version != null) {
+            final Matcher versionMatcher = VERSION_REGEX.matcher(detected.version);
+            if (versionMatcher.matches()) {
+                keys[n] = Detector.DETECTED_VERSION;
+                values[n++] = versionMatcher.group(1);
+                keys[n] = Detector.DETECTED_VERSION_MAJOR;
+                values[n++] = versionMatcher.group(2);
+                keys[n] = Detector.DETECTED_VERSION_MINOR;
+                values[n++] = versionMatcher.group(3);
+            }
+        }
+
+        // For Linux systems, add additional properties regarding details of the OS.
+        if (linuxRelease != null) {
+            keys[n] = Detector.DETECTED_RELEASE;
+            values[n++] = linuxRelease.id;
+            if (linuxRelease.version != null) {
+                keys[n] = Detector.DETECTED_RELEASE_VERSION;
+                values[n++] = linuxRelease.version;
+            }
+
+            // Add properties for all systems that this OS is "like".
+            for (String like : linuxRelease.likes) {
+                keys[n] = Detector.DETECTED_RELEASE_LIKE_PREFIX + like;
+                values[n++] = "true";
+            }
+        }
+
+        keys[n] = Detector.DETECTED_CLASSIFIER;
+        values[n++] = detected.classifier;
+
+        return new DetectedProperties(detected, Arrays.copyOf(keys, n), Arrays.copyOf(values, n));
+    }
+
+    /**
+     * Returns the detection result the properties were computed from.
+     */
+    public Detected getDetected() {
+        return detected;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public String key(int index) {
+        return keys[index];
+    }
+
+    public String value(int index) {
+        return values[index];
+    }
+
+    /**
+     * Returns the value of the given key, or {@code null} if it is not present.
+     */
+    public String get(String key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+
+    public boolean containsKey(String key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Returns the properties in a new map, in publishing order.
+     */
+    public Map<String, String> toMap() {
+        final Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], values[i]);
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A thread-safe cache of the {@link Detected} result.
+ *
+ * <p>The first {@link #get()} runs the detection; later calls return the cached result with a volatile
+ * read. The inputs of the detection, i.e., the system properties and the size and last modified time of
+ * the Linux release files, are revalidated at most once per second, and the detection runs again only
+ * if any of them changed.
+ *
+ * <p>A cache can be backed by a {@link SharedDetectionStore} to share the result with other JVMs on the
+ * same host. The default cache uses the store at its default location if the system property
+ * {@code os.detection.sharedCache} is {@code true}, or the store at the given path for any other value
+ * except {@code false}.
+ */
+public final class DetectionCache {
+    private static final long DEFAULT_REVALIDATE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final String CACHE_NAME = "DetectionCache";
+    private static final String STORE_NAME = "SharedDetectionStore";
+
+    private static final DetectionCache DEFAULT =
+            new DetectionCache(new DefaultSystemPropertyOperations(), new DefaultFileOperations(), defaultStore());
+
+    private final SystemPropertyOperationProvider systemPropertyOperationProvider;
+    private final FileOperationProvider fileOperationProvider;
+    private final Detector detector;
+    private final SharedDetectionStore store;
+    private final long revalidateIntervalNanos;
+
+    private volatile Entry entry;
+
+    public DetectionCache(
+            SystemPropertyOperationProvider systemPropertyOperationProvider,
+            FileOperationProvider fileOperationProvider) {
+        this(systemPropertyOperationProvider, fileOperationProvider, null);
+    }
+
+    /**
+     * Creates a cache that consults the given store before detecting, and updates it after detecting.
+     */
+    public DetectionCache(
+            SystemPropertyOperationProvider systemPropertyOperationProvider,
+            FileOperationProvider fileOperationProvider,
+            SharedDetectionStore store) {
+        this(systemPropertyOperationProvider, fileOperationProvider, store, DEFAULT_REVALIDATE_INTERVAL_NANOS);
+    }
+
+    DetectionCache(
+            SystemPropertyOperationProvider systemPropertyOperationProvider,
+            FileOperationProvider fileOperationProvider,
+            SharedDetectionStore store,
+            long revalidateIntervalNanos) {
+        this.systemPropertyOperationProvider = systemPropertyOperationProvider;
+        this.fileOperationProvider = fileOperationProvider;
+        this.detector = new Detector(systemPropertyOperationProvider, fileOperationProvider, message -> {});
+        this.store = store;
+        this.revalidateIntervalNanos = revalidateIntervalNanos;
+    }
+
+    /**
+     * Returns the process-wide cache backed by the JVM system properties and the local file system.
+     */
+    public static DetectionCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the cached detection result, detecting again if the inputs have changed.
+     */
+    public Detected get() {
+        return getEntry().detected;
+    }
+
+    /**
+     * Returns the {@link DetectedProperties} of the cached result, which are computed once per detection.
+     */
+    public DetectedProperties getProperties() {
+        return getEntry().properties;
+    }
+
+    /**
+     * Drops the cached result so that the next {@link #get()} detects again.
+     */
+    public void invalidate() {
+        entry = null;
+    }
+
+    private Entry getEntry() {
+        final long start = DetectionEvents.start();
+        final Entry e = entry;
+        if (e != null && isValid(e)) {
+            DetectionEvents.emit(DetectionEvent.Phase.CACHE_HIT, CACHE_NAME, e.detected.classifier, -1, start);
+            return e;
+        }
+        final Entry refreshed = refresh();
+        DetectionEvents.emit(DetectionEvent.Phase.CACHE_MISS, CACHE_NAME, refreshed.detected.classifier, -1, start);
+        return refreshed;
+    }
+
+    private boolean isValid(Entry e) {
+        final long now = System.nanoTime();
+        if (now - e.validatedAt < revalidateIntervalNanos) {
+            return true;
+        }
+        if (e.inputs.propertiesMatch(systemPropertyOperationProvider) && e.inputs.filesMatch(fileOperationProvider)) {
+            e.validatedAt = now;
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized Entry refresh() {
+        final Entry e = entry;
+        if (e != null && isValid(e)) {
+            // Another thread has refreshed the entry.
+            return e;
+        }
+        // Snapshot the inputs before detecting, so that a concurrent change is caught on the next validation.
+        final DetectionInputs inputs = DetectionInputs.read(systemPropertyOperationProvider, fileOperationProvider);
+        final long loadStart = DetectionEvents.start();
+        Detected detected = store != null ? store.load(inputs) : null;
+        if (detected != null) {
+            DetectionEvents.emit(DetectionEvent.Phase.CACHE_HIT, STORE_NAME, detected.classifier, -1, loadStart);
+        } else {
+            detected = detector.detect();
+            if (store != null) {
+                store.store(inputs, detected);
+            }
+        }
+        final Entry refreshed = new Entry(inputs, detected, DetectedProperties.of(detected), System.nanoTime());
+        entry = refreshed;
+        return refreshed;
+    }
+
+    private static SharedDetectionStore defaultStore() {
+        final String sharedCache = System.getProperty("os.detection.sharedCache");
+        if (sharedCache == null || "false".equalsIgnoreCase(sharedCache)) {
+            return null;
+        }
+        if ("true".equalsIgnoreCase(sharedCache)) {
+            return SharedDetectionStore.atDefaultLocation();
+        }
+        return new SharedDetectionStore(Paths.get(sharedCache));
+    }
+
+    private static final class Entry {
+        private final DetectionInputs inputs;
+        private final Detected detected;
+        private final DetectedProperties properties;
+        private volatile long validatedAt;
+
+        private Entry(DetectionInputs inputs, Detected detected, DetectedProperties properties, long validatedAt) {
+            this.inputs = inputs;
+            this.detected = detected;
+            this.properties = properties;
+            this.validatedAt = validatedAt;
+        }
+    }
+}
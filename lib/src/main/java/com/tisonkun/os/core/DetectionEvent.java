@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * A timed phase of the detection, reported to {@link DetectionListener}s.
+ */
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public final class DetectionEvent {
+    public enum Phase {
+        /**
+         * A system property read. The subject is the property name and the result is its value.
+         */
+        PROPERTY_READ,
+        /**
+         * A Linux release file probe, including reading and parsing. The subject is the file path, the result
+         * is the release ID found, if any, and the bytes are the file size, or -1 if it could not be read.
+         */
+        FILE_PROBE,
+        /**
+         * Parsing a Linux release file that has been read. The subject is the file path.
+         */
+        PARSE,
+        /**
+         * The Linux release lookup over all probes. The subject is the path of the file the release was read
+         * from, or {@code null} if none had one, and the result is the release ID.
+         */
+        RELEASE,
+        /**
+         * The bitness determination. The subject is where the bitness came from, i.e.,
+         * {@code sun.arch.data.model}, {@code com.ibm.vm.bitmode} or {@code os.arch} if it was guessed from the
+         * architecture, and the result is the bitness.
+         */
+        BITNESS,
+        /**
+         * Publishing the detected properties in bulk. The subject is {@code null} and the result is the number
+         * of properties published.
+         */
+        PUBLISH,
+        /**
+         * A complete detection. The subject is the classifier and the result is the Linux release ID, if any.
+         */
+        DETECTION,
+        /**
+         * A detection served from a cache. The subject names the cache, i.e., {@code DetectionCache} or
+         * {@code SharedDetectionStore}, and the result is the classifier.
+         */
+        CACHE_HIT,
+        /**
+         * A cache lookup that had to refresh, including the time to refresh. The subject names the cache and
+         * the result is the classifier.
+         */
+        CACHE_MISS,
+        /**
+         * A native library load by {@link NativeLibraryLoader}. The subject is the library name and the result
+         * is the path loaded, or {@code null} if loading failed.
+         */
+        NATIVE_LOAD
+    }
+
+    public final Phase phase;
+    public final String subject;
+    public final String result;
+
+    /**
+     * The number of bytes read, or -1 if not applicable.
+     */
+    public final long bytes;
+
+    public final long durationNanos;
+}
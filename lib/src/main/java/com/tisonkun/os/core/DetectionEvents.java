@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.util.Arrays;
+
+/**
+ * Dispatches {@link DetectionEvent}s to the registered listeners. Without listeners, {@link #start()} and
+ * {@link #emit} reduce to a volatile read, so that instrumented code pays nothing for the timing.
+ */
+final class DetectionEvents {
+    private static final DetectionListener[] EMPTY = new DetectionListener[0];
+
+    private static volatile DetectionListener[] listeners = EMPTY;
+
+    static {
+        try {
+            JfrSupport.install();
+        } catch (LinkageError ignored) {
+            // The runtime has no jdk.jfr module.
+        }
+    }
+
+    private DetectionEvents() {}
+
+    static synchronized void addListener(DetectionListener listener) {
+        final DetectionListener[] current = listeners;
+        final DetectionListener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        listeners = updated;
+    }
+
+    static synchronized void removeListener(DetectionListener listener) {
+        final DetectionListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                final DetectionListener[] updated = new DetectionListener[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                listeners = updated;
+                return;
+            }
+        }
+    }
+
+    static boolean isEnabled() {
+        return listeners.length != 0;
+    }
+
+    /**
+     * Returns the start time of a phase, or {@code 0} if nobody listens.
+     */
+    static long start() {
+        return isEnabled() ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Like {@link #start()}, but also begins the Java Flight Recorder event of the phase, which is ended and
+     * committed when the phase is emitted.
+     */
+    static long start(DetectionEvent.Phase phase) {
+        if (!isEnabled()) {
+            return 0;
+        }
+        JfrSupport.begin(phase);
+        return System.nanoTime();
+    }
+
+    static void emit(DetectionEvent.Phase phase, String subject, String result, long bytes, long start) {
+        final DetectionListener[] current = listeners;
+        if (current.length == 0) {
+            return;
+        }
+        final DetectionEvent event =
+                new DetectionEvent(phase, subject, result, bytes, start == 0 ? 0 : System.nanoTime() - start);
+        for (DetectionListener listener : current) {
+            try {
+                listener.onEvent(event);
+            } catch (RuntimeException ignored) {
+                // A broken listener must not break the detection.
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.io.IOException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import lombok.EqualsAndHashCode;
+
+/**
+ * A snapshot of everything {@link Detector#detect()} reads: the relevant system properties and,
+ * on Linux, the size and last modified time of the release files.
+ */
+@EqualsAndHashCode
+final class DetectionInputs {
+    static final String[] PROPERTY_NAMES = {
+        "os.name", "os.arch", "os.version", "sun.arch.data.model", "com.ibm.vm.bitmode"
+    };
+    static final String[] RELEASE_FILES = {
+        Detector.LINUX_OS_RELEASE_FILES[0], Detector.LINUX_OS_RELEASE_FILES[1], Detector.REDHAT_RELEASE_FILE
+    };
+
+    private static final long MISSING = -1L;
+    private static final long UNKNOWN = -2L;
+
+    final String[] properties;
+    // size and last modified time for each of RELEASE_FILES; empty if the release files are not read.
+    final long[] files;
+
+    DetectionInputs(String[] properties, long[] files) {
+        this.properties = properties;
+        this.files = files;
+    }
+
+    static DetectionInputs read(SystemPropertyOperationProvider sysPropOps, FileOperationProvider fileOps) {
+        final String[] properties = new String[PROPERTY_NAMES.length];
+        for (int i = 0; i < PROPERTY_NAMES.length; i++) {
+            properties[i] = sysPropOps.getSystemProperty(PROPERTY_NAMES[i]);
+        }
+        // The release files are only read on Linux; don't pay for the stats elsewhere.
+        if (Detector.normalizeOs(properties[0]) != OS.linux) {
+            return new DetectionInputs(properties, new long[0]);
+        }
+        final long[] files = new long[RELEASE_FILES.length * 2];
+        for (int i = 0; i < RELEASE_FILES.length; i++) {
+            stat(fileOps, RELEASE_FILES[i], files, i * 2);
+        }
+        return new DetectionInputs(properties, files);
+    }
+
+    boolean propertiesMatch(SystemPropertyOperationProvider sysPropOps) {
+        for (int i = 0; i < PROPERTY_NAMES.length; i++) {
+            if (!Objects.equals(properties[i], sysPropOps.getSystemProperty(PROPERTY_NAMES[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean filesMatch(FileOperationProvider fileOps) {
+        if (files.length == 0) {
+            return true;
+        }
+        final long[] current = new long[2];
+        for (int i = 0; i < RELEASE_FILES.length; i++) {
+            stat(fileOps, RELEASE_FILES[i], current, 0);
+            if (current[0] != files[i * 2] || current[1] != files[i * 2 + 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void stat(FileOperationProvider fileOps, String fileName, long[] dst, int offset) {
+        try {
+            final BasicFileAttributes attrs = fileOps.readAttributes(fileName);
+            if (attrs == null) {
+                dst[offset] = UNKNOWN;
+                dst[offset + 1] = UNKNOWN;
+            } else {
+                dst[offset] = attrs.size();
+                dst[offset + 1] = attrs.lastModifiedTime().toMillis();
+            }
+        } catch (IOException ignored) {
+            dst[offset] = MISSING;
+            dst[offset + 1] = MISSING;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+/**
+ * Receives {@link DetectionEvent}s from all detectors and caches in the process. Register listeners with
+ * {@link Detector#addListener(DetectionListener)}.
+ *
+ * <p>Listeners are called synchronously on the detecting thread, so they should be cheap and must be
+ * thread-safe. Exceptions thrown by a listener are ignored.
+ */
+@FunctionalInterface
+public interface DetectionListener {
+    void onEvent(DetectionEvent event);
+}
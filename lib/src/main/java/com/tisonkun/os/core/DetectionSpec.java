@@ -0,0 +1,63 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Selects the facets {@link Detector#detect(DetectionSpec)} computes. The OS and the architecture are always
+ * detected; every other facet is computed unless disabled. For example, to only detect the classifier:
+ *
+ * <pre>{@code
+ * DetectionSpec spec = DetectionSpec.builder().bitness(false).version(false).linuxRelease(false).build();
+ * }</pre>
+ */
+@Builder
+@EqualsAndHashCode
+@ToString
+public class DetectionSpec {
+    /**
+     * Computes every facet, as {@link Detector#detect()} does.
+     */
+    public static final DetectionSpec ALL = builder().build();
+
+    /**
+     * Whether to determine {@link Detected#bitness}; it is {@code 0} otherwise.
+     */
+    @Builder.Default
+    public final boolean bitness = true;
+
+    /**
+     * Whether to read {@link Detected#version}; it is {@code null} otherwise.
+     */
+    @Builder.Default
+    public final boolean version = true;
+
+    /**
+     * Whether to compute {@link Detected#classifier}; it is {@code null} otherwise.
+     */
+    @Builder.Default
+    public final boolean classifier = true;
+
+    /**
+     * Whether to read the Linux release files for {@link Detected#linuxRelease}; it is {@code null} otherwise.
+     */
+    @Builder.Default
+    public final boolean linuxRelease = true;
+}
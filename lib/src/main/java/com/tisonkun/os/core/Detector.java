@@ -17,18 +17,21 @@
 package com.tisonkun.os.core;
 
 import java.io.BufferedReader;
-import java.io.Closeable;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -45,18 +48,30 @@ public class Detector {
     public static final String DETECTED_RELEASE_VERSION = DETECTED_RELEASE + ".version";
     public static final String DETECTED_RELEASE_LIKE_PREFIX = DETECTED_RELEASE + ".like.";
 
-    private static final String LINUX_ID_PREFIX = "ID=";
-    private static final String LINUX_ID_LIKE_PREFIX = "ID_LIKE=";
-    private static final String LINUX_VERSION_ID_PREFIX = "VERSION_ID=";
-    private static final String[] LINUX_OS_RELEASE_FILES = {"/etc/os-release", "/usr/lib/os-release"};
-    private static final String REDHAT_RELEASE_FILE = "/etc/redhat-release";
+    static final String[] LINUX_OS_RELEASE_FILES = {"/etc/os-release", "/usr/lib/os-release"};
+    static final String REDHAT_RELEASE_FILE = "/etc/redhat-release";
     private static final String[] DEFAULT_REDHAT_VARIANTS = {"rhel", "fedora"};
-    private static final Pattern VERSION_REGEX = Pattern.compile("((\\d+)\\.(\\d+)).*");
     private static final Pattern REDHAT_MAJOR_VERSION_REGEX = Pattern.compile("(\\d+)");
+    private static final String LOG_SEPARATOR =
+            "------------------------------------------------------------------------";
+
+    private static final DetectionSpec WITHOUT_LINUX_RELEASE =
+            DetectionSpec.builder().linuxRelease(false).build();
+    private static final Arch[] ARCHES = Arch.values();
+    private static final String[] CLASSIFIERS = new String[OS.values().length * ARCHES.length];
+
+    static {
+        for (OS os : OS.values()) {
+            for (Arch arch : ARCHES) {
+                CLASSIFIERS[os.ordinal() * ARCHES.length + arch.ordinal()] = (os.name() + '-' + arch.name()).intern();
+            }
+        }
+    }
 
     private final SystemPropertyOperationProvider systemPropertyOperationProvider;
     private final FileOperationProvider fileOperationProvider;
     private final LoggingProvider loggingProvider;
+    private final DetectionCache detectionCache;
 
     public Detector(LoggingProvider loggingProvider) {
         this(new DefaultSystemPropertyOperations(), new DefaultFileOperations(), loggingProvider);
@@ -66,44 +81,196 @@ public class Detector {
             SystemPropertyOperationProvider systemPropertyOperationProvider,
             FileOperationProvider fileOperationProvider,
             LoggingProvider loggingProvider) {
+        this(systemPropertyOperationProvider, fileOperationProvider, loggingProvider, null);
+    }
+
+    /**
+     * Creates a detector whose {@link #detect()} is served by the given cache. The providers are still used
+     * by {@link #detect(Properties)} to read {@code failOnUnknownOS} and to set the detected properties.
+     */
+    public Detector(
+            SystemPropertyOperationProvider systemPropertyOperationProvider,
+            FileOperationProvider fileOperationProvider,
+            LoggingProvider loggingProvider,
+            DetectionCache detectionCache) {
         this.systemPropertyOperationProvider = systemPropertyOperationProvider;
         this.fileOperationProvider = fileOperationProvider;
         this.loggingProvider = loggingProvider;
+        this.detectionCache = detectionCache;
+    }
+
+    /**
+     * Returns the detection result of the process-wide {@link DetectionCache#getDefault() cache}.
+     */
+    public static Detected cached() {
+        return DetectionCache.getDefault().get();
+    }
+
+    /**
+     * Registers a listener for the {@link DetectionEvent}s of all detectors and caches in the process.
+     */
+    public static void addListener(DetectionListener listener) {
+        DetectionEvents.addListener(listener);
+    }
+
+    public static void removeListener(DetectionListener listener) {
+        DetectionEvents.removeListener(listener);
     }
 
     public Detected detect() {
-        final String osName = systemPropertyOperationProvider.getSystemProperty("os.name");
-        final String osArch = systemPropertyOperationProvider.getSystemProperty("os.arch");
-        final String osVersion = systemPropertyOperationProvider.getSystemProperty("os.version");
+        return detect(DetectionSpec.ALL);
+    }
+
+    /**
+     * Detects the OS and the architecture, and the other facets selected by the given spec. A detector
+     * backed by a cache always returns the cached result with all facets.
+     */
+    public Detected detect(DetectionSpec spec) {
+        if (detectionCache != null) {
+            return detectionCache.get();
+        }
+
+        final long start = DetectionEvents.start(DetectionEvent.Phase.DETECTION);
+        final Detected detected = detectFacets(spec);
+        emitDetection(detected.os, detected.arch, detected.linuxRelease, start);
+        return detected;
+    }
+
+    private Detected detectFacets(DetectionSpec spec) {
+        final String osName = readProperty("os.name");
+        final String osArch = readProperty("os.arch");
+        final String osVersion = spec.version ? readProperty("os.version") : null;
 
         final OS detectedName = normalizeOs(osName);
         final Arch detectedArch = normalizeArch(osArch);
-        final int detectedBitness = determineBitness(detectedArch.name());
-        final String detectedClassifier = String.valueOf(detectedName) + '-' + detectedArch;
-        final LinuxRelease linuxRelease = OS.linux != detectedName ? null : getLinuxRelease();
-
+        final int detectedBitness = spec.bitness ? determineBitness(detectedArch.name()) : 0;
+        final String detectedClassifier = spec.classifier ? classifier(detectedName, detectedArch) : null;
+        final LinuxRelease linuxRelease = spec.linuxRelease && OS.linux == detectedName ? getLinuxRelease() : null;
         return new Detected(detectedBitness, osVersion, detectedClassifier, detectedName, detectedArch, linuxRelease);
     }
 
+    private static void emitDetection(OS os, Arch arch, LinuxRelease linuxRelease, long start) {
+        if (DetectionEvents.isEnabled()) {
+            DetectionEvents.emit(
+                    DetectionEvent.Phase.DETECTION,
+                    classifier(os, arch),
+                    linuxRelease == null ? null : linuxRelease.id,
+                    -1,
+                    start);
+        }
+    }
+
+    /**
+     * Detects everything except the Linux release, which is read on first access of
+     * {@link LazyDetected#getLinuxRelease()}.
+     */
+    public LazyDetected detectLazily() {
+        if (detectionCache != null) {
+            return new LazyDetected(detectionCache.get());
+        }
+        final Detected detected = detect(WITHOUT_LINUX_RELEASE);
+        return new LazyDetected(
+                detected.bitness, detected.version, detected.classifier, detected.os, detected.arch, this);
+    }
+
+    /**
+     * Detects asynchronously on the given executor. On Linux, the release files are probed concurrently, and
+     * the result resolves as soon as the release is known by the same priority as {@link #detect()}: first
+     * {@code /etc/os-release}, then {@code /usr/lib/os-release}, and finally {@code /etc/redhat-release}.
+     */
+    public CompletableFuture<Detected> detectAsync(Executor executor) {
+        if (detectionCache != null) {
+            return CompletableFuture.supplyAsync(detectionCache::get, executor);
+        }
+        // The stages may run on different threads, so the JFR event of the detection is not begun here.
+        final long start = DetectionEvents.start();
+        return CompletableFuture.supplyAsync(() -> detectFacets(WITHOUT_LINUX_RELEASE), executor)
+                .thenCompose(detected -> {
+                    if (OS.linux != detected.os) {
+                        emitDetection(detected.os, detected.arch, null, start);
+                        return CompletableFuture.completedFuture(detected);
+                    }
+                    return getLinuxReleaseAsync(executor).thenApply(linuxRelease -> {
+                        emitDetection(detected.os, detected.arch, linuxRelease, start);
+                        return new Detected(
+                                detected.bitness,
+                                detected.version,
+                                detected.classifier,
+                                detected.os,
+                                detected.arch,
+                                linuxRelease);
+                    });
+                });
+    }
+
+    /**
+     * Detects, validates the result against {@code failOnUnknownOS}, and publishes the
+     * {@link DetectedProperties} to the given properties and the system properties. Properties whose value
+     * is unchanged are not written again.
+     *
+     * @throws DetectionException if the OS or the architecture is unknown, unless the system property
+     *                            {@code failOnUnknownOS} is {@code false}; nothing is published then
+     */
     public void detect(Properties props) {
-        loggingProvider.info("------------------------------------------------------------------------");
-        loggingProvider.info("Detecting the operating system and CPU architecture");
-        loggingProvider.info("------------------------------------------------------------------------");
+        if (loggingProvider.isEnabled(LoggingProvider.Level.INFO)) {
+            logBanner(loggingProvider);
+        }
 
-        final Detected detected = detect();
+        final DetectedProperties detectedProperties = detectProperties();
 
-        setProperty(props, DETECTED_NAME, detected.os.name());
-        setProperty(props, DETECTED_ARCH, detected.arch.name());
-        setProperty(props, DETECTED_BITNESS, String.valueOf(detected.bitness));
+        final long start = DetectionEvents.start();
+        final Map<String, String> published = new LinkedHashMap<>();
+        for (int i = 0; i < detectedProperties.size(); i++) {
+            final String name = detectedProperties.key(i);
+            final String value = detectedProperties.value(i);
+            if (!value.equals(props.getProperty(name))) {
+                props.setProperty(name, value);
+            }
+            published.put(name, value);
+            if (loggingProvider.isEnabled(LoggingProvider.Level.INFO)) {
+                loggingProvider.log(LoggingProvider.Level.INFO, name + ": " + value);
+            }
+        }
+        systemPropertyOperationProvider.setSystemProperties(published);
+        if (DetectionEvents.isEnabled()) {
+            DetectionEvents.emit(
+                    DetectionEvent.Phase.PUBLISH, null, String.valueOf(detectedProperties.size()), -1, start);
+        }
+    }
 
-        final Matcher versionMatcher = VERSION_REGEX.matcher(detected.version);
-        if (versionMatcher.matches()) {
-            setProperty(props, DETECTED_VERSION, versionMatcher.group(1));
-            setProperty(props, DETECTED_VERSION_MAJOR, versionMatcher.group(2));
-            setProperty(props, DETECTED_VERSION_MINOR, versionMatcher.group(3));
+    /**
+     * Logs the given detected properties at INFO in the format of {@link #detect(Properties)}, for callers that
+     * obtain them otherwise, e.g., through {@link #detectProperties()}.
+     */
+    public static void logDetectedProperties(LoggingProvider loggingProvider, Map<String, String> detectedProperties) {
+        if (loggingProvider.isEnabled(LoggingProvider.Level.INFO)) {
+            logBanner(loggingProvider);
+            for (Map.Entry<String, String> e : detectedProperties.entrySet()) {
+                loggingProvider.log(LoggingProvider.Level.INFO, e.getKey() + ": " + e.getValue());
+            }
         }
+    }
+
+    private static void logBanner(LoggingProvider loggingProvider) {
+        loggingProvider.log(LoggingProvider.Level.INFO, LOG_SEPARATOR);
+        loggingProvider.log(LoggingProvider.Level.INFO, "Detecting the operating system and CPU architecture");
+        loggingProvider.log(LoggingProvider.Level.INFO, LOG_SEPARATOR);
+    }
 
-        final String failOnUnknownOS = systemPropertyOperationProvider.getSystemProperty("failOnUnknownOS");
+    /**
+     * Detects and validates the result against {@code failOnUnknownOS} like {@link #detect(Properties)},
+     * but returns the properties instead of publishing them. A detector backed by a cache returns the view
+     * computed by the cache.
+     *
+     * @throws DetectionException if the OS or the architecture is unknown, unless the system property
+     *                            {@code failOnUnknownOS} is {@code false}
+     */
+    public DetectedProperties detectProperties() {
+        final DetectedProperties detectedProperties =
+                detectionCache != null ? detectionCache.getProperties() : DetectedProperties.of(detect());
+        final Detected detected = detectedProperties.getDetected();
+
+        final String failOnUnknownOS = readProperty("failOnUnknownOS");
         if (!"false".equalsIgnoreCase(failOnUnknownOS)) {
             if (detected.os.isUnknown()) {
                 final String osName = systemPropertyOperationProvider.getSystemProperty("os.name");
@@ -114,240 +281,211 @@ public class Detector {
                 throw new DetectionException("unknown os.arch: " + osArch);
             }
         }
+        return detectedProperties;
+    }
 
-        // For Linux systems, add additional properties regarding details of the OS.
-        final LinuxRelease linuxRelease = detected.linuxRelease;
-        if (linuxRelease != null) {
-            setProperty(props, DETECTED_RELEASE, linuxRelease.id);
-            if (linuxRelease.version != null) {
-                setProperty(props, DETECTED_RELEASE_VERSION, linuxRelease.version);
-            }
+    private String readProperty(String name) {
+        final long start = DetectionEvents.start();
+        final String value = systemPropertyOperationProvider.getSystemProperty(name);
+        DetectionEvents.emit(DetectionEvent.Phase.PROPERTY_READ, name, value, -1, start);
+        return value;
+    }
 
-            // Add properties for all systems that this OS is "like".
-            for (String like : linuxRelease.likes) {
-                final String propKey = DETECTED_RELEASE_LIKE_PREFIX + like;
-                setProperty(props, propKey, "true");
-            }
-        }
+    private String readProperty(String name, String def) {
+        final long start = DetectionEvents.start();
+        final String value = systemPropertyOperationProvider.getSystemProperty(name, def);
+        DetectionEvents.emit(DetectionEvent.Phase.PROPERTY_READ, name, value, -1, start);
+        return value;
+    }
 
-        setProperty(props, DETECTED_CLASSIFIER, detected.classifier);
+    static OS normalizeOs(String value) {
+        return PlatformAliases.resolveOs(value);
     }
 
-    private void setProperty(Properties props, String name, String value) {
-        props.setProperty(name, value);
-        systemPropertyOperationProvider.setSystemProperty(name, value);
-        loggingProvider.info(name + ": " + value);
+    static Arch normalizeArch(String value) {
+        return PlatformAliases.resolveArch(value);
     }
 
-    private static OS normalizeOs(String value) {
-        value = normalize(value);
-        if (value.startsWith("aix")) {
-            return OS.aix;
-        }
-        if (value.startsWith("hpux")) {
-            return OS.hpux;
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
         }
-        if (value.startsWith("os400")) {
-            // avoid the names such as os4000
-            final boolean cornerCase = value.length() > 5 && Character.isDigit(value.charAt(5));
-            if (!cornerCase) {
-                return OS.os400;
+        final int length = value.length();
+        int i = 0;
+        while (i < length && isNormalized(value.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            // Already normalized.
+            return value;
+        }
+        final char[] chars = new char[length];
+        value.getChars(0, i, chars, 0);
+        int n = i;
+        for (; i < length; i++) {
+            final char c = normalizeChar(value.charAt(i));
+            if (c != 0) {
+                chars[n++] = c;
             }
         }
-        if (value.startsWith("linux")) {
-            return OS.linux;
-        }
-        if (value.startsWith("mac") || value.startsWith("osx")) {
-            return OS.osx;
-        }
-        if (value.startsWith("freebsd")) {
-            return OS.freebsd;
-        }
-        if (value.startsWith("openbsd")) {
-            return OS.openbsd;
-        }
-        if (value.startsWith("netbsd")) {
-            return OS.netbsd;
-        }
-        if (value.startsWith("solaris") || value.startsWith("sunos")) {
-            return OS.sunos;
-        }
-        if (value.startsWith("windows")) {
-            return OS.windows;
-        }
-        if (value.startsWith("zos")) {
-            return OS.zos;
-        }
-        return OS.unknown;
+        return new String(chars, 0, n);
     }
 
-    private static Arch normalizeArch(String value) {
-        value = normalize(value);
-        if (value.matches("^(x8664|amd64|ia32e|em64t|x64)$")) {
-            return Arch.x86_64;
-        }
-        if (value.matches("^(x8632|x86|i[3-6]86|ia32|x32)$")) {
-            return Arch.x86_32;
-        }
-        if (value.matches("^(ia64w?|itanium64)$")) {
-            return Arch.itanium_64;
-        }
-        if ("ia64n".equals(value)) {
-            return Arch.itanium_32;
-        }
-        if (value.matches("^(sparc|sparc32)$")) {
-            return Arch.sparc_32;
-        }
-        if (value.matches("^(sparcv9|sparc64)$")) {
-            return Arch.sparc_64;
-        }
-        if (value.matches("^(arm|arm32)$")) {
-            return Arch.arm_32;
-        }
-        if ("aarch64".equals(value)) {
-            return Arch.aarch_64;
-        }
-        if (value.matches("^(mips|mips32)$")) {
-            return Arch.mips_32;
-        }
-        if (value.matches("^(mipsel|mips32el)$")) {
-            return Arch.mipsel_32;
-        }
-        if ("mips64".equals(value)) {
-            return Arch.mips_64;
-        }
-        if ("mips64el".equals(value)) {
-            return Arch.mipsel_64;
-        }
-        if (value.matches("^(ppc|ppc32)$")) {
-            return Arch.ppc_32;
-        }
-        if (value.matches("^(ppcle|ppc32le)$")) {
-            return Arch.ppcle_32;
-        }
-        if ("ppc64".equals(value)) {
-            return Arch.ppc_64;
-        }
-        if ("ppc64le".equals(value)) {
-            return Arch.ppcle_64;
-        }
-        if ("s390".equals(value)) {
-            return Arch.s390_32;
-        }
-        if ("s390x".equals(value)) {
-            return Arch.s390_64;
-        }
-        if (value.matches("^(riscv|riscv32)$")) {
-            return Arch.riscv;
-        }
-        if ("riscv64".equals(value)) {
-            return Arch.riscv64;
+    /**
+     * Lowercases the given character, returning {@code 0} if the result is not in {@code [a-z0-9]}.
+     */
+    static char normalizeChar(char c) {
+        if (isNormalized(c)) {
+            return c;
         }
-        if ("e2k".equals(value)) {
-            return Arch.e2k;
+        if (c >= 'A' && c <= 'Z') {
+            return (char) (c + ('a' - 'A'));
         }
-        if ("loongarch64".equals(value)) {
-            return Arch.loongarch_64;
+        if (c < 0x80) {
+            return 0;
         }
-        return Arch.unknown;
+        // Some non-ASCII characters, e.g., the Kelvin sign, lowercase to ASCII letters.
+        final char lower = Character.toLowerCase(c);
+        return lower >= 'a' && lower <= 'z' ? lower : 0;
     }
 
-    private static String normalize(String value) {
-        if (value == null) {
-            return "";
-        }
-        return value.toLowerCase(Locale.US).replaceAll("[^a-z0-9]+", "");
+    private static boolean isNormalized(char c) {
+        return c >= 'a' && c <= 'z' || c >= '0' && c <= '9';
+    }
+
+    /**
+     * Returns the interned classifier of the given OS and architecture, e.g., {@code linux-x86_64}.
+     */
+    static String classifier(OS os, Arch arch) {
+        return CLASSIFIERS[os.ordinal() * ARCHES.length + arch.ordinal()];
     }
 
     private int determineBitness(String architecture) {
-        // try the widely adopted sun specification first.
-        String bitness = systemPropertyOperationProvider.getSystemProperty("sun.arch.data.model", "");
+        final long start = DetectionEvents.start();
 
-        if (!bitness.isEmpty() && bitness.matches("[0-9]+")) {
-            return Integer.parseInt(bitness, 10);
+        // try the widely adopted sun specification first.
+        String value = readProperty("sun.arch.data.model", "");
+        int bitness = parseBitness(value);
+        if (bitness >= 0) {
+            DetectionEvents.emit(DetectionEvent.Phase.BITNESS, "sun.arch.data.model", value, -1, start);
+            return bitness;
         }
 
         // bitness from sun.arch.data.model cannot be used. Try the IBM specification.
-        bitness = systemPropertyOperationProvider.getSystemProperty("com.ibm.vm.bitmode", "");
-
-        if (!bitness.isEmpty() && bitness.matches("[0-9]+")) {
-            return Integer.parseInt(bitness, 10);
+        value = readProperty("com.ibm.vm.bitmode", "");
+        bitness = parseBitness(value);
+        if (bitness >= 0) {
+            DetectionEvents.emit(DetectionEvent.Phase.BITNESS, "com.ibm.vm.bitmode", value, -1, start);
+            return bitness;
         }
 
         // as a last resort, try to determine the bitness from the architecture.
-        return guessBitnessFromArchitecture(architecture);
+        final int guessed = guessBitnessFromArchitecture(architecture);
+        if (DetectionEvents.isEnabled()) {
+            DetectionEvents.emit(DetectionEvent.Phase.BITNESS, "os.arch", String.valueOf(guessed), -1, start);
+        }
+        return guessed;
+    }
+
+    /**
+     * Returns the bitness given by a {@code sun.arch.data.model} or {@code com.ibm.vm.bitmode} value, or
+     * {@code -1} if the value is {@code null} or not a decimal number that fits in an {@code int}.
+     */
+    static int parseBitness(String value) {
+        if (value == null || value.isEmpty()) {
+            return -1;
+        }
+        int bitness = 0;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9' || bitness > (Integer.MAX_VALUE - (c - '0')) / 10) {
+                return -1;
+            }
+            bitness = bitness * 10 + (c - '0');
+        }
+        return bitness;
     }
 
     public static int guessBitnessFromArchitecture(String arch) {
         return arch.contains("64") ? 64 : 32;
     }
 
-    private LinuxRelease getLinuxRelease() {
+    LinuxRelease getLinuxRelease() {
+        final long start = DetectionEvents.start();
+
         // First, look for the os-release file.
         for (String osReleaseFileName : LINUX_OS_RELEASE_FILES) {
             LinuxRelease res = parseLinuxOsReleaseFile(osReleaseFileName);
             if (res != null) {
+                DetectionEvents.emit(DetectionEvent.Phase.RELEASE, osReleaseFileName, res.id, -1, start);
                 return res;
             }
         }
 
         // Older versions of redhat don't have /etc/os-release. In this case, try
         // parsing this file.
-        return parseLinuxRedhatReleaseFile();
+        final LinuxRelease res = parseLinuxRedhatReleaseFile();
+        DetectionEvents.emit(
+                DetectionEvent.Phase.RELEASE,
+                res == null ? null : REDHAT_RELEASE_FILE,
+                res == null ? null : res.id,
+                -1,
+                start);
+        return res;
+    }
+
+    private CompletableFuture<LinuxRelease> getLinuxReleaseAsync(Executor executor) {
+        final long start = DetectionEvents.start();
+        final List<CompletableFuture<LinuxRelease>> probes = new ArrayList<>(LINUX_OS_RELEASE_FILES.length + 1);
+        for (String osReleaseFileName : LINUX_OS_RELEASE_FILES) {
+            probes.add(CompletableFuture.supplyAsync(() -> parseLinuxOsReleaseFile(osReleaseFileName), executor));
+        }
+        probes.add(CompletableFuture.supplyAsync(this::parseLinuxRedhatReleaseFile, executor));
+
+        // Chain the probes by priority so that a lower-priority probe is only awaited if all before it failed.
+        CompletableFuture<LinuxRelease> result = probes.get(probes.size() - 1);
+        for (int i = probes.size() - 2; i >= 0; i--) {
+            final CompletableFuture<LinuxRelease> fallback = result;
+            result = probes.get(i).thenCompose(res -> res != null ? CompletableFuture.completedFuture(res) : fallback);
+        }
+        return result.thenApply(res -> {
+            if (DetectionEvents.isEnabled()) {
+                // All probes before the one that found the release have completed without one.
+                String source = null;
+                if (res != null) {
+                    int i = 0;
+                    while (probes.get(i).join() != res) {
+                        i++;
+                    }
+                    source = i < LINUX_OS_RELEASE_FILES.length ? LINUX_OS_RELEASE_FILES[i] : REDHAT_RELEASE_FILE;
+                }
+                DetectionEvents.emit(DetectionEvent.Phase.RELEASE, source, res == null ? null : res.id, -1, start);
+            }
+            return res;
+        });
     }
 
     /**
      * Parses a file in the format of {@code /etc/os-release} and return a {@link LinuxRelease}
      * based on the {@code ID}, {@code ID_LIKE}, and {@code VERSION_ID} entries.
      */
-    private LinuxRelease parseLinuxOsReleaseFile(String fileName) {
-        BufferedReader reader = null;
+    LinuxRelease parseLinuxOsReleaseFile(String fileName) {
+        final long start = DetectionEvents.start(DetectionEvent.Phase.FILE_PROBE);
+        final ByteBuffer bytes;
         try {
-            InputStream in = fileOperationProvider.readFile(fileName);
-            reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
-
-            String id = null;
-            String version = null;
-            final Set<String> likeSet = new LinkedHashSet<>();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                // Parse the ID line.
-                if (line.startsWith(LINUX_ID_PREFIX)) {
-                    // Set the ID for this version.
-                    id = normalizeOsReleaseValue(line.substring(LINUX_ID_PREFIX.length()));
-
-                    // Also add the ID to the "like" set.
-                    likeSet.add(id);
-                    continue;
-                }
-
-                // Parse the VERSION_ID line.
-                if (line.startsWith(LINUX_VERSION_ID_PREFIX)) {
-                    // Set the ID for this version.
-                    version = normalizeOsReleaseValue(line.substring(LINUX_VERSION_ID_PREFIX.length()));
-                    continue;
-                }
-
-                // Parse the ID_LIKE line.
-                if (line.startsWith(LINUX_ID_LIKE_PREFIX)) {
-                    line = normalizeOsReleaseValue(line.substring(LINUX_ID_LIKE_PREFIX.length()));
-
-                    // Split the line on any whitespace.
-                    final String[] parts = line.split("\\s+");
-                    Collections.addAll(likeSet, parts);
-                }
-            }
-
-            if (id != null) {
-                final List<String> likes = likeSet.stream().sorted().collect(Collectors.toList());
-                return new LinuxRelease(id, version, likes);
-            }
+            bytes = fileOperationProvider.readFileBytes(fileName);
         } catch (IOException ignored) {
             // Just absorb. Don't treat failure to read /etc/os-release as an error.
-        } finally {
-            closeQuietly(reader);
-        }
-        return null;
+            DetectionEvents.emit(DetectionEvent.Phase.FILE_PROBE, fileName, null, -1, start);
+            return null;
+        }
+        final long size = bytes.remaining();
+        final long parseStart = DetectionEvents.start();
+        final LinuxRelease res = LinuxRelease.from(OsReleaseParser.parse(bytes, "ID", "ID_LIKE", "VERSION_ID"));
+        final String id = res == null ? null : res.id;
+        DetectionEvents.emit(DetectionEvent.Phase.PARSE, fileName, id, size, parseStart);
+        DetectionEvents.emit(DetectionEvent.Phase.FILE_PROBE, fileName, id, size, start);
+        return res;
     }
 
     /**
@@ -355,12 +493,28 @@ public class Detector {
      * ID and like ["rhel", "fedora", ID]. Currently only supported for CentOS, Fedora, and RHEL.
      * Other variants will return {@code null}.
      */
-    private LinuxRelease parseLinuxRedhatReleaseFile() {
-        BufferedReader reader = null;
+    LinuxRelease parseLinuxRedhatReleaseFile() {
+        final long start = DetectionEvents.start(DetectionEvent.Phase.FILE_PROBE);
+        final ByteBuffer bytes;
         try {
-            InputStream in = fileOperationProvider.readFile(REDHAT_RELEASE_FILE);
-            reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            bytes = fileOperationProvider.readFileBytes(REDHAT_RELEASE_FILE);
+        } catch (IOException ignored) {
+            // Just absorb. Don't treat failure to read /etc/redhat-release as an error.
+            DetectionEvents.emit(DetectionEvent.Phase.FILE_PROBE, REDHAT_RELEASE_FILE, null, -1, start);
+            return null;
+        }
+        final long size = bytes.remaining();
+        final long parseStart = DetectionEvents.start();
+        final LinuxRelease res = parseRedhatRelease(bytes);
+        final String id = res == null ? null : res.id;
+        DetectionEvents.emit(DetectionEvent.Phase.PARSE, REDHAT_RELEASE_FILE, id, size, parseStart);
+        DetectionEvents.emit(DetectionEvent.Phase.FILE_PROBE, REDHAT_RELEASE_FILE, id, size, start);
+        return res;
+    }
 
+    private static LinuxRelease parseRedhatRelease(ByteBuffer bytes) {
+        try (BufferedReader reader = new BufferedReader(
+                new StringReader(StandardCharsets.UTF_8.decode(bytes).toString()))) {
             // There is only a single line in this file.
             String line = reader.readLine();
             if (line != null) {
@@ -390,24 +544,8 @@ public class Detector {
                 return new LinuxRelease(id, version, likes);
             }
         } catch (IOException ignored) {
-            // Just absorb. Don't treat failure to read /etc/os-release as an error.
-        } finally {
-            closeQuietly(reader);
+            // Reading from a string does not fail.
         }
         return null;
     }
-
-    // Remove any quotes from the string.
-    private static String normalizeOsReleaseValue(String value) {
-        return value.trim().replace("\"", "");
-    }
-
-    private static void closeQuietly(Closeable obj) {
-        try {
-            if (obj != null) {
-                obj.close();
-            }
-        } catch (IOException ignored) {
-        }
-    }
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+/**
+ * Aggregated detection statistics, registered as {@value DetectorStats#OBJECT_NAME} by
+ * {@link DetectorStats#register()}.
+ *
+ * <p>Latency histograms have 64 buckets; bucket {@code i} counts the events that took {@code [2^i, 2^(i+1))}
+ * nanoseconds.
+ */
+public interface DetectorMXBean {
+    long getDetectionCount();
+
+    long getDetectionTotalNanos();
+
+    long getDetectionMaxNanos();
+
+    long[] getDetectionLatencyHistogram();
+
+    long getFileProbeCount();
+
+    long getFileProbeTotalNanos();
+
+    long getFileProbeMaxNanos();
+
+    long[] getFileProbeLatencyHistogram();
+
+    long getCacheHitCount();
+
+    long getCacheMissCount();
+
+    /**
+     * Returns the file the last Linux release was read from, or {@code null}.
+     */
+    String getLastReleaseSource();
+
+    /**
+     * Returns where the last bitness came from: {@code sun.arch.data.model}, {@code com.ibm.vm.bitmode} or
+     * {@code os.arch}.
+     */
+    String getLastBitnessSource();
+
+    void reset();
+}
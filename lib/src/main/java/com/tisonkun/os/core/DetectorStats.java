@@ -0,0 +1,191 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * A {@link DetectionListener} that aggregates events into counters and latency histograms, exposed as a
+ * {@link DetectorMXBean}.
+ */
+public final class DetectorStats implements DetectionListener, DetectorMXBean {
+    public static final String OBJECT_NAME = "com.tisonkun.os:type=Detector";
+
+    private static DetectorStats registered;
+
+    private final Histogram detections = new Histogram();
+    private final Histogram fileProbes = new Histogram();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private volatile String lastReleaseSource;
+    private volatile String lastBitnessSource;
+
+    /**
+     * Registers the process-wide stats as a detection listener and as an MBean named {@value #OBJECT_NAME} on
+     * the platform MBean server. Later calls return the same instance.
+     *
+     * @throws IllegalStateException if the MBean cannot be registered
+     */
+    public static synchronized DetectorStats register() {
+        if (registered == null) {
+            final DetectorStats stats = new DetectorStats();
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(stats, new ObjectName(OBJECT_NAME));
+            } catch (InstanceAlreadyExistsException ignored) {
+                // Registered by another copy of this library, e.g., in another class loader.
+            } catch (JMException e) {
+                throw new IllegalStateException("cannot register " + OBJECT_NAME, e);
+            }
+            Detector.addListener(stats);
+            registered = stats;
+        }
+        return registered;
+    }
+
+    @Override
+    public void onEvent(DetectionEvent event) {
+        switch (event.phase) {
+            case DETECTION:
+                detections.record(event.durationNanos);
+                break;
+            case FILE_PROBE:
+                fileProbes.record(event.durationNanos);
+                break;
+            case RELEASE:
+                lastReleaseSource = event.subject;
+                break;
+            case BITNESS:
+                lastBitnessSource = event.subject;
+                break;
+            case CACHE_HIT:
+                cacheHits.increment();
+                break;
+            case CACHE_MISS:
+                cacheMisses.increment();
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public long getDetectionCount() {
+        return detections.count.sum();
+    }
+
+    @Override
+    public long getDetectionTotalNanos() {
+        return detections.total.sum();
+    }
+
+    @Override
+    public long getDetectionMaxNanos() {
+        return detections.max.get();
+    }
+
+    @Override
+    public long[] getDetectionLatencyHistogram() {
+        return detections.snapshot();
+    }
+
+    @Override
+    public long getFileProbeCount() {
+        return fileProbes.count.sum();
+    }
+
+    @Override
+    public long getFileProbeTotalNanos() {
+        return fileProbes.total.sum();
+    }
+
+    @Override
+    public long getFileProbeMaxNanos() {
+        return fileProbes.max.get();
+    }
+
+    @Override
+    public long[] getFileProbeLatencyHistogram() {
+        return fileProbes.snapshot();
+    }
+
+    @Override
+    public long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    @Override
+    public long getCacheMissCount() {
+        return cacheMisses.sum();
+    }
+
+    @Override
+    public String getLastReleaseSource() {
+        return lastReleaseSource;
+    }
+
+    @Override
+    public String getLastBitnessSource() {
+        return lastBitnessSource;
+    }
+
+    @Override
+    public void reset() {
+        detections.reset();
+        fileProbes.reset();
+        cacheHits.reset();
+        cacheMisses.reset();
+        lastReleaseSource = null;
+        lastBitnessSource = null;
+    }
+
+    private static final class Histogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(64);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long nanos) {
+            buckets.incrementAndGet(63 - Long.numberOfLeadingZeros(Math.max(1, nanos)));
+            count.increment();
+            total.add(nanos);
+            max.accumulateAndGet(nanos, Math::max);
+        }
+
+        long[] snapshot() {
+            final long[] result = new long[buckets.length()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = buckets.get(i);
+            }
+            return result;
+        }
+
+        void reset() {
+            for (int i = 0; i < buckets.length(); i++) {
+                buckets.set(i, 0);
+            }
+            count.reset();
+            total.reset();
+            max.set(0);
+        }
+    }
+}
@@ -16,8 +16,11 @@
 
 package com.tisonkun.os.core;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * Interface exposing file operations.
@@ -32,4 +35,38 @@ public interface FileOperationProvider {
      *             file, or for some other reason cannot be opened for reading.
      */
     InputStream readFile(String filePath) throws IOException;
+
+    /**
+     * Reads the whole content of the file with the specified path. Providers backed by the file
+     * system should override the default, which copies {@link #readFile(String)}.
+     *
+     * @param      filePath   the system-dependent file path.
+     * @return     a buffer positioned at the start of the content.
+     * @throws IOException if the file does not exist, is a directory rather than a regular
+     *             file, or for some other reason cannot be opened for reading.
+     */
+    default ByteBuffer readFileBytes(String filePath) throws IOException {
+        try (InputStream in = readFile(filePath)) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+            final byte[] buffer = new byte[1024];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            return ByteBuffer.wrap(out.toByteArray());
+        }
+    }
+
+    /**
+     * Reads the basic attributes of the file with the specified path. Caches use the size and
+     * the last modified time to tell whether the file has changed since it was last read.
+     *
+     * @param      filePath   the system-dependent file path.
+     * @return     the file attributes, or {@code null} if this provider cannot tell; in that case
+     *             the file is assumed to be unchanged.
+     * @throws IOException if the file does not exist or its attributes cannot be read.
+     */
+    default BasicFileAttributes readAttributes(String filePath) throws IOException {
+        return null;
+    }
 }
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+/**
+ * Hook to emit Java Flight Recorder events for {@link DetectionEvent}s. This version, used on Java 8, does
+ * nothing; the multi-release jar carries a Java 11 version under {@code META-INF/versions/11} that does.
+ */
+final class JfrSupport {
+    private JfrSupport() {}
+
+    static void install() {}
+
+    static void begin(DetectionEvent.Phase phase) {}
+}
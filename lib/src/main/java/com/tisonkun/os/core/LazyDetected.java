@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+/**
+ * A detection result whose Linux release is only read from the release files on first access.
+ * Instances are thread-safe; the release files are read at most once.
+ */
+public final class LazyDetected {
+    public final int bitness;
+    public final String version;
+    public final String classifier;
+    public final OS os;
+    public final Arch arch;
+
+    private final Detector detector;
+    private volatile boolean linuxReleaseResolved;
+    private LinuxRelease linuxRelease;
+
+    LazyDetected(int bitness, String version, String classifier, OS os, Arch arch, Detector detector) {
+        this.bitness = bitness;
+        this.version = version;
+        this.classifier = classifier;
+        this.os = os;
+        this.arch = arch;
+        this.detector = detector;
+    }
+
+    LazyDetected(Detected detected) {
+        this(detected.bitness, detected.version, detected.classifier, detected.os, detected.arch, null);
+        this.linuxRelease = detected.linuxRelease;
+        this.linuxReleaseResolved = true;
+    }
+
+    /**
+     * Returns the Linux release, or {@code null} if the OS is not Linux or the release cannot be detected.
+     */
+    public LinuxRelease getLinuxRelease() {
+        if (!linuxReleaseResolved) {
+            synchronized (this) {
+                if (!linuxReleaseResolved) {
+                    linuxRelease = os == OS.linux ? detector.getLinuxRelease() : null;
+                    linuxReleaseResolved = true;
+                }
+            }
+        }
+        return linuxRelease;
+    }
+
+    /**
+     * Returns the eager {@link Detected} equivalent, reading the Linux release if it has not been read yet.
+     */
+    public Detected toDetected() {
+        return new Detected(bitness, version, classifier, os, arch, getLinuxRelease());
+    }
+
+    @Override
+    public String toString() {
+        return "LazyDetected(bitness=" + bitness + ", version=" + version + ", classifier=" + classifier + ", os=" + os
+                + ", arch=" + arch + ")";
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+/**
+ * Base of the {@link LoggingProvider} adapters to loggers with a method per level, such as SLF4J, Maven and
+ * Plexus loggers. Subclasses only forward the level checks and the messages; this class maps the
+ * {@link Level}s to them.
+ */
+public abstract class LeveledLoggingProvider implements LoggingProvider {
+    protected abstract boolean isDebugEnabled();
+
+    protected abstract boolean isInfoEnabled();
+
+    protected abstract boolean isWarnEnabled();
+
+    protected abstract boolean isErrorEnabled();
+
+    protected abstract void debug(String message);
+
+    protected abstract void warn(String message);
+
+    protected abstract void error(String message);
+
+    @Override
+    public final boolean isEnabled(Level level) {
+        switch (level) {
+            case DEBUG:
+                return isDebugEnabled();
+            case INFO:
+                return isInfoEnabled();
+            case WARN:
+                return isWarnEnabled();
+            default:
+                return isErrorEnabled();
+        }
+    }
+
+    @Override
+    public final void log(Level level, String message) {
+        switch (level) {
+            case DEBUG:
+                debug(message);
+                break;
+            case INFO:
+                info(message);
+                break;
+            case WARN:
+                warn(message);
+                break;
+            default:
+                error(message);
+                break;
+        }
+    }
+}
@@ -16,6 +16,8 @@
 
 package com.tisonkun.os.core;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
@@ -28,4 +30,42 @@ public class LinuxRelease {
     public final String id;
     public final String version;
     public final List<String> likes;
+
+    /**
+     * Returns the release based on the {@code ID}, {@code ID_LIKE}, and {@code VERSION_ID} entries,
+     * or {@code null} if there is no {@code ID} entry. The likes contain the ID and all IDs listed in
+     * {@code ID_LIKE}, sorted and without duplicates.
+     */
+    public static LinuxRelease from(OsRelease osRelease) {
+        final String id = osRelease.get("ID");
+        if (id == null) {
+            return null;
+        }
+        final List<String> likes = new ArrayList<>(4);
+        likes.add(id);
+        final String idLike = osRelease.get("ID_LIKE");
+        if (idLike != null) {
+            splitWhitespace(idLike, likes);
+        }
+        Collections.sort(likes);
+        for (int i = likes.size() - 1; i > 0; i--) {
+            if (likes.get(i).equals(likes.get(i - 1))) {
+                likes.remove(i);
+            }
+        }
+        return new LinuxRelease(id, osRelease.get("VERSION_ID"), likes);
+    }
+
+    private static void splitWhitespace(String value, List<String> dst) {
+        int start = -1;
+        for (int i = 0; i <= value.length(); i++) {
+            final boolean whitespace = i == value.length() || Character.isWhitespace(value.charAt(i));
+            if (whitespace && start >= 0) {
+                dst.add(value.substring(start, i));
+                start = -1;
+            } else if (!whitespace && start < 0) {
+                start = i;
+            }
+        }
+    }
 }
@@ -16,14 +16,75 @@
 
 package com.tisonkun.os.core;
 
+import java.util.function.Supplier;
+
 /**
  * Interface exposing logging functions.
+ *
+ * <p>Only {@link #info(String)} has to be implemented, so that a lambda or a method reference works as a
+ * provider; such a provider logs every message. Adapters to leveled loggers should also override
+ * {@link #isEnabled(Level)} and {@link #log(Level, String)}, so that disabled messages are never built.
  */
+@FunctionalInterface
 public interface LoggingProvider {
+    enum Level {
+        DEBUG,
+        INFO,
+        WARN,
+        ERROR
+    }
+
     /**
      * Log a message at the INFO level.
      *
      * @param message the message string to be logg
      */
     void info(String message);
+
+    /**
+     * Returns whether messages at the given level are logged. Callers check it before building a message.
+     */
+    default boolean isEnabled(Level level) {
+        return true;
+    }
+
+    /**
+     * Log a message at the given level. The default logs every level with {@link #info(String)}.
+     */
+    default void log(Level level, String message) {
+        info(message);
+    }
+
+    /**
+     * Log a message at the given level, building it only if the level is enabled.
+     */
+    default void log(Level level, Supplier<String> message) {
+        if (isEnabled(level)) {
+            log(level, message.get());
+        }
+    }
+
+    /**
+     * Returns a provider that logs every message at the given level of this provider, e.g., to log the
+     * detection at DEBUG.
+     */
+    default LoggingProvider withLevel(Level level) {
+        final LoggingProvider delegate = this;
+        return new LoggingProvider() {
+            @Override
+            public void info(String message) {
+                delegate.log(level, message);
+            }
+
+            @Override
+            public boolean isEnabled(Level ignored) {
+                return delegate.isEnabled(level);
+            }
+
+            @Override
+            public void log(Level ignored, String message) {
+                delegate.log(level, message);
+            }
+        };
+    }
 }
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * An index of the native libraries shipped under {@code META-INF/native/}, generated at build time by the
+ * Gradle plugin and stored as {@value #RESOURCE}, so that the shipped classifiers can be found without
+ * scanning jar entries and extracted without hashing the libraries at runtime.
+ *
+ * <p>The format is the magic {@code OSNI}, the format version as a short and the number of entries as an
+ * int, followed by the entries. Each entry is its classifier and path as length-prefixed UTF-8 strings, the
+ * size as a long and the 32-byte SHA-256 of the library.
+ */
+@EqualsAndHashCode
+@ToString
+public final class NativeIndex {
+    public static final String RESOURCE = "META-INF/native-index.bin";
+
+    private static final int MAGIC = 0x4F534E49; // "OSNI"
+    private static final short FORMAT_VERSION = 1;
+    private static final int SHA256_LENGTH = 32;
+
+    private final Map<String, Entry> entries;
+
+    public NativeIndex(List<Entry> entries) {
+        final Map<String, Entry> map = new LinkedHashMap<>();
+        for (Entry entry : entries) {
+            map.put(entry.path, entry);
+        }
+        this.entries = Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * A native library in the index.
+     */
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    public static final class Entry {
+        /**
+         * The classifier directory of the library, or an empty string if it lies directly under
+         * {@code META-INF/native/}.
+         */
+        public final String classifier;
+
+        /**
+         * The resource path of the library, e.g., {@code META-INF/native/linux-x86_64/libfoo.so}.
+         */
+        public final String path;
+
+        public final long size;
+
+        /**
+         * The lowercase hex SHA-256 of the library.
+         */
+        public final String sha256;
+    }
+
+    /**
+     * Creates the entry of a library at the given resource path by reading its content.
+     */
+    public static Entry entry(String path, InputStream content) throws IOException {
+        if (!path.startsWith(NativeLibraryLoader.NATIVE_RESOURCE_PREFIX)) {
+            throw new IllegalArgumentException("not a native resource: " + path);
+        }
+        final String relative = path.substring(NativeLibraryLoader.NATIVE_RESOURCE_PREFIX.length());
+        final int slash = relative.indexOf('/');
+        final String classifier = slash < 0 ? "" : relative.substring(0, slash);
+        final MessageDigest digest = NativeLibraryExtractor.newDigest();
+        final byte[] buffer = new byte[64 * 1024];
+        long size = 0;
+        int n;
+        while ((n = content.read(buffer)) >= 0) {
+            digest.update(buffer, 0, n);
+            size += n;
+        }
+        return new Entry(classifier, path, size, NativeLibraryExtractor.toHex(digest.digest()));
+    }
+
+    /**
+     * Reads and merges the indexes of all jars visible to the class loader. Unreadable indexes are skipped.
+     */
+    public static NativeIndex load(ClassLoader classLoader) {
+        final List<Entry> entries = new ArrayList<>();
+        try {
+            final Enumeration<URL> resources = classLoader.getResources(RESOURCE);
+            while (resources.hasMoreElements()) {
+                try (InputStream in = resources.nextElement().openStream()) {
+                    entries.addAll(read(in).entries.values());
+                } catch (IOException | RuntimeException ignored) {
+                    // A broken index only loses the shortcut; the libraries are still found on the classpath.
+                }
+            }
+        } catch (IOException ignored) {
+            // Same as above.
+        }
+        return new NativeIndex(entries);
+    }
+
+    /**
+     * Reads an index in one shot.
+     */
+    public static NativeIndex read(InputStream in) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        final byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) >= 0) {
+            bytes.write(buffer, 0, n);
+        }
+        return read(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    public static NativeIndex read(ByteBuffer in) throws IOException {
+        try {
+            if (in.getInt() != MAGIC || in.getShort() != FORMAT_VERSION) {
+                throw new IOException("not a native index");
+            }
+            final int count = in.getInt();
+            if (count < 0 || count > in.remaining()) {
+                throw new IOException("invalid entry count: " + count);
+            }
+            final List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final String classifier = readString(in);
+                final String path = readString(in);
+                final long size = in.getLong();
+                final byte[] sha256 = new byte[SHA256_LENGTH];
+                in.get(sha256);
+                entries.add(new Entry(classifier, path, size, NativeLibraryExtractor.toHex(sha256)));
+            }
+            return new NativeIndex(entries);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("truncated native index", e);
+        }
+    }
+
+    public void write(OutputStream out) throws IOException {
+        final DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeShort(FORMAT_VERSION);
+        data.writeInt(entries.size());
+        for (Entry entry : entries.values()) {
+            writeString(data, entry.classifier);
+            writeString(data, entry.path);
+            data.writeLong(entry.size);
+            data.write(fromHex(entry.sha256));
+        }
+        data.flush();
+    }
+
+    public List<Entry> getEntries() {
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * Returns the classifiers shipped, excluding the empty classifier of libraries directly under
+     * {@code META-INF/native/}.
+     */
+    public Set<String> getClassifiers() {
+        final Set<String> classifiers = new TreeSet<>();
+        for (Entry entry : entries.values()) {
+            if (!entry.classifier.isEmpty()) {
+                classifiers.add(entry.classifier);
+            }
+        }
+        return classifiers;
+    }
+
+    /**
+     * Returns the entry of the given resource path, or {@code null} if it is not indexed.
+     */
+    public Entry get(String path) {
+        return entries.get(path);
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        final byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] fromHex(String hex) {
+        if (hex.length() != SHA256_LENGTH * 2) {
+            throw new IllegalArgumentException("invalid SHA-256: " + hex);
+        }
+        final byte[] bytes = new byte[SHA256_LENGTH];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.jar.JarEntry;
+import java.util.zip.CRC32;
+
+/**
+ * Extracts native library resources into a content-addressed cache directory, so that JVMs on the same host
+ * share one copy of each library instead of extracting it on every start.
+ *
+ * <p>A library is extracted to {@code <root>/<classifier>/<key>/<file name>}, where the key is the SHA-256
+ * of the content, or {@code crc32-<crc>} for a jar entry whose CRC-32 is recorded in the jar. Before
+ * extracting, the extractor takes an exclusive lock on {@code <root>/<classifier>/<key>.lock}, so that
+ * concurrent JVMs and threads extract once; the content is written to a temporary file, verified against
+ * its key and atomically renamed into place, so that a reader never sees a partial file. Since the file name
+ * is content-addressed, an existing file is reused if its size matches, without reading it.
+ *
+ * <p>The default root is {@code java.io.tmpdir/os-detector-native-<user>}, or the value of the system
+ * property {@code os.detection.nativeDir}. The root is created accessible to the current user only.
+ */
+public final class NativeLibraryExtractor {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long TRANSFER_CHUNK = 8 * 1024 * 1024;
+    private static final String CRC32_KEY_PREFIX = "crc32-";
+
+    // One monitor per lock file, guarding the file lock against the other threads of this JVM.
+    private static final ConcurrentMap<Path, Object> LOCKS = new ConcurrentHashMap<>();
+
+    private final Path root;
+    private final String classifier;
+
+    public NativeLibraryExtractor(Path root, String classifier) {
+        this.root = root;
+        this.classifier = classifier;
+    }
+
+    /**
+     * Returns an extractor at the default root for the classifier of {@link Detector#cached()}.
+     */
+    public static NativeLibraryExtractor atDefaultLocation() {
+        return new NativeLibraryExtractor(defaultRoot(), Detector.cached().classifier);
+    }
+
+    static Path defaultRoot() {
+        final String dir = System.getProperty("os.detection.nativeDir");
+        if (dir != null && !dir.isEmpty()) {
+            return Paths.get(dir);
+        }
+        return Paths.get(
+                System.getProperty("java.io.tmpdir"),
+                "os-detector-native-" + System.getProperty("user.name", "unknown"));
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Extracts the resource. A jar entry is keyed by the size and CRC-32 recorded in the jar, and any other
+     * resource is hashed first to find its cache entry.
+     */
+    public Path extract(URL resource) throws IOException {
+        final URLConnection connection = resource.openConnection();
+        if (connection instanceof JarURLConnection) {
+            final JarEntry entry = ((JarURLConnection) connection).getJarEntry();
+            if (entry != null && entry.getSize() >= 0 && entry.getCrc() >= 0) {
+                return extractByKey(resource, entry.getSize(), CRC32_KEY_PREFIX + Long.toHexString(entry.getCrc()));
+            }
+        }
+        final long[] size = new long[1];
+        final byte[] digest;
+        try (InputStream in = connection.getInputStream()) {
+            digest = sha256(Channels.newChannel(in), size);
+        }
+        return extract(resource, size[0], toHex(digest));
+    }
+
+    /**
+     * Extracts the resource of the given size and SHA-256, e.g., as recorded at build time. The resource is
+     * not read at all if the cache entry exists already.
+     *
+     * @param sha256 the lowercase hex SHA-256 of the resource
+     */
+    public Path extract(URL resource, long size, String sha256) throws IOException {
+        return extractByKey(resource, size, sha256);
+    }
+
+    private Path extractByKey(URL resource, long size, String key) throws IOException {
+        final String path = resource.getPath();
+        final String fileName = path.substring(path.lastIndexOf('/') + 1);
+        if (PrivateFiles.createDirectory(root) == null) {
+            throw new IOException("cache directory is not owned by the current user: " + root);
+        }
+        final Path classifierDir = PrivateFiles.createDirectory(root.resolve(classifier));
+        if (classifierDir == null) {
+            throw new IOException("cache directory is not owned by the current user: " + root.resolve(classifier));
+        }
+        final Path target = classifierDir.resolve(key).resolve(fileName);
+        if (isExtracted(target, size)) {
+            return target;
+        }
+
+        final Path lockFile = classifierDir.resolve(key + ".lock");
+        // A FileLock is held on behalf of the whole JVM, and a second lock() from another thread fails with
+        // OverlappingFileLockException; serialize the threads of this JVM first.
+        synchronized (LOCKS.computeIfAbsent(lockFile, k -> new Object())) {
+            return extractLocked(resource, size, key, fileName, target, lockFile);
+        }
+    }
+
+    private static Path extractLocked(URL resource, long size, String key, String fileName, Path target, Path lockFile)
+            throws IOException {
+        try (FileChannel lockChannel =
+                FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            final FileLock lock = lockChannel.lock();
+            try {
+                return extractUnderLock(resource, size, key, fileName, target);
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    private static Path extractUnderLock(URL resource, long size, String key, String fileName, Path target)
+            throws IOException {
+        // Another JVM may have extracted it while we were waiting for the lock.
+        if (isExtracted(target, size)) {
+            return target;
+        }
+        final Path dir = Files.createDirectories(target.getParent());
+        final Path tmp = Files.createTempFile(dir, fileName, ".tmp");
+        try {
+            try (InputStream in = resource.openStream();
+                    ReadableByteChannel source = Channels.newChannel(in);
+                    FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                long position = 0;
+                long transferred;
+                while ((transferred = channel.transferFrom(source, position, TRANSFER_CHUNK)) > 0) {
+                    position += transferred;
+                }
+            }
+            if (!matches(tmp, size, key)) {
+                throw new IOException("content of " + resource + " does not match its size or " + key);
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return target;
+    }
+
+    /**
+     * Checks whether the content-addressed file exists. The key in its path already vouches for its content,
+     * and the size rejects a truncated file without reading it.
+     */
+    private static boolean isExtracted(Path file, long size) throws IOException {
+        return Files.isRegularFile(file) && Files.size(file) == size;
+    }
+
+    /**
+     * Checks the size and the content of a freshly written file against its key.
+     */
+    private static boolean matches(Path file, long size, String key) throws IOException {
+        if (!isExtracted(file, size)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (key.startsWith(CRC32_KEY_PREFIX)) {
+                return (CRC32_KEY_PREFIX + Long.toHexString(crc32(channel))).equals(key);
+            }
+            return toHex(sha256(channel, new long[1])).equals(key);
+        }
+    }
+
+    private static long crc32(ReadableByteChannel channel) throws IOException {
+        final CRC32 crc = new CRC32();
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        while (channel.read(buffer) >= 0) {
+            buffer.flip();
+            crc.update(buffer);
+            buffer.clear();
+        }
+        return crc.getValue();
+    }
+
+    private static byte[] sha256(ReadableByteChannel channel, long[] size) throws IOException {
+        final MessageDigest digest = newDigest();
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long total = 0;
+        int n;
+        while ((n = channel.read(buffer)) >= 0) {
+            buffer.flip();
+            digest.update(buffer);
+            buffer.clear();
+            total += n;
+        }
+        size[0] = total;
+        return digest.digest();
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        final char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = Character.forDigit((bytes[i] >> 4) & 0xF, 16);
+            chars[i * 2 + 1] = Character.forDigit(bytes[i] & 0xF, 16);
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves and loads native libraries shipped as classpath resources, named by the detected classifier.
+ *
+ * <p>A library {@code foo} is looked up in order at:
+ *
+ * <ol>
+ * <li>{@code META-INF/native/<classifier>/libfoo.so}, where the file name follows the detected OS, e.g.,
+ * {@code foo.dll} on Windows and {@code libfoo.dylib} on macOS;</li>
+ * <li>the same file under the classifiers of compatible architectures, e.g., {@code linux-x86_64} for
+ * {@code linux-x86_32} on multi-arch hosts;</li>
+ * <li>{@code META-INF/native/libfoo.so}.</li>
+ * </ol>
+ *
+ * <p>The resolution of each name is remembered by the loader, so the classpath is consulted once per name.
+ * {@link #load(String)} tries the resolved candidates in order until one links. The JVM binds a library to
+ * the class loader of the class calling {@link System#load(String)}, i.e., the class loader of this library
+ * rather than the one resources are read from, so each library name is loaded at most once per copy of this
+ * library, whichever loaders its instances read from.
+ *
+ * <p>Resources inside jars are extracted with a {@link NativeLibraryExtractor}, which shares one copy of each
+ * library among the JVMs on the host. Libraries listed in a {@link NativeIndex} are extracted with their
+ * recorded size and SHA-256, so that an existing copy is reused without reading the resource. If the shared
+ * copy cannot be extracted or fails to link, e.g., since it is already bound to another copy of this library,
+ * the resource is extracted to a private temporary file and loaded once more from there.
+ */
+public final class NativeLibraryLoader {
+    public static final String NATIVE_RESOURCE_PREFIX = "META-INF/native/";
+
+    private static final NativeLibraryLoader DEFAULT =
+            new NativeLibraryLoader(NativeLibraryLoader.class.getClassLoader());
+
+    // The names loaded by this copy of the class, which is what System.load binds them to.
+    private static final Set<String> LOADED = ConcurrentHashMap.newKeySet();
+    // One monitor per name, so that loading a library does not wait for the extraction of another.
+    private static final ConcurrentMap<String, Object> LOCKS = new ConcurrentHashMap<>();
+
+    private final ClassLoader classLoader;
+    private final Detected detected;
+    private final NativeLibraryExtractor extractor;
+    private final ConcurrentMap<String, List<URL>> resolved = new ConcurrentHashMap<>();
+    private volatile NativeIndex index;
+
+    /**
+     * Creates a loader that reads resources from the given class loader for the platform of
+     * {@link Detector#cached()}.
+     */
+    public NativeLibraryLoader(ClassLoader classLoader) {
+        this(classLoader, Detector.cached());
+    }
+
+    public NativeLibraryLoader(ClassLoader classLoader, Detected detected) {
+        this(
+                classLoader,
+                detected,
+                new NativeLibraryExtractor(
+                        NativeLibraryExtractor.defaultRoot(), Detector.classifier(detected.os, detected.arch)));
+    }
+
+    public NativeLibraryLoader(ClassLoader classLoader, Detected detected, NativeLibraryExtractor extractor) {
+        this.classLoader = classLoader;
+        this.detected = detected;
+        this.extractor = extractor;
+    }
+
+    /**
+     * Returns the loader that reads resources from the class loader of this library.
+     */
+    public static NativeLibraryLoader getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the merged {@link NativeIndex} of the class loader, which is read once per loader.
+     */
+    public NativeIndex getIndex() {
+        NativeIndex result = index;
+        if (result == null) {
+            result = NativeIndex.load(classLoader);
+            index = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the resource paths looked up for the given library name, in order.
+     */
+    public List<String> candidates(String name) {
+        final String fileName = mapLibraryName(detected.os, name);
+        final List<String> candidates = new ArrayList<>();
+        // Not detected.classifier, which is null if the classifier facet was not detected.
+        candidates.add(NATIVE_RESOURCE_PREFIX + Detector.classifier(detected.os, detected.arch) + '/' + fileName);
+        for (Arch arch : compatibleArches(detected.arch)) {
+            candidates.add(NATIVE_RESOURCE_PREFIX + Detector.classifier(detected.os, arch) + '/' + fileName);
+        }
+        candidates.add(NATIVE_RESOURCE_PREFIX + fileName);
+        return candidates;
+    }
+
+    /**
+     * Returns the resources of the given library name that exist on the classpath, in order of preference.
+     */
+    public List<URL> resolve(String name) {
+        return resolved.computeIfAbsent(name, this::doResolve);
+    }
+
+    /**
+     * Loads the given library unless a library of the name has been loaded already.
+     *
+     * @throws UnsatisfiedLinkError if no resource of the name exists or none of them can be linked
+     */
+    public void load(String name) {
+        if (LOADED.contains(name)) {
+            return;
+        }
+        synchronized (LOCKS.computeIfAbsent(name, k -> new Object())) {
+            if (LOADED.contains(name)) {
+                return;
+            }
+            final List<URL> urls = resolve(name);
+            if (urls.isEmpty()) {
+                throw new UnsatisfiedLinkError("no native library " + name + " in " + candidates(name));
+            }
+            final long start = DetectionEvents.start(DetectionEvent.Phase.NATIVE_LOAD);
+            UnsatisfiedLinkError error = null;
+            for (URL url : urls) {
+                try {
+                    final String path = load(name, url);
+                    LOADED.add(name);
+                    DetectionEvents.emit(DetectionEvent.Phase.NATIVE_LOAD, name, path, -1, start);
+                    return;
+                } catch (UnsatisfiedLinkError e) {
+                    // Try the next candidate, e.g., an x86_64 library on an x86_32 JVM fails to link.
+                    if (error == null) {
+                        error = e;
+                    } else {
+                        error.addSuppressed(e);
+                    }
+                }
+            }
+            DetectionEvents.emit(DetectionEvent.Phase.NATIVE_LOAD, name, null, -1, start);
+            throw error;
+        }
+    }
+
+    private List<URL> doResolve(String name) {
+        final List<URL> urls = new ArrayList<>();
+        for (String candidate : candidates(name)) {
+            final URL url = classLoader.getResource(candidate);
+            if (url != null) {
+                urls.add(url);
+            }
+        }
+        return Collections.unmodifiableList(urls);
+    }
+
+    /**
+     * Loads the library from the given resource and returns the path loaded.
+     */
+    private String load(String name, URL url) {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return load(Paths.get(url.toURI()));
+            } catch (URISyntaxException | IllegalArgumentException ignored) {
+                // Fall through to extract the resource.
+            }
+        }
+        final Path shared;
+        try {
+            final NativeIndex.Entry entry = getIndex().get(resourcePath(url));
+            shared = entry != null ? extractor.extract(url, entry.size, entry.sha256) : extractor.extract(url);
+        } catch (IOException e) {
+            return load(extractPrivately(name, url));
+        }
+        try {
+            return load(shared);
+        } catch (UnsatisfiedLinkError e) {
+            // The shared copy may be bound to another copy of this library; a private copy can still link.
+            try {
+                return load(extractPrivately(name, url));
+            } catch (UnsatisfiedLinkError retried) {
+                e.addSuppressed(retried);
+                throw e;
+            }
+        }
+    }
+
+    private static String load(Path file) {
+        final String path = file.toString();
+        System.load(path);
+        return path;
+    }
+
+    private static String resourcePath(URL url) {
+        final String path = url.getPath();
+        final int start = path.lastIndexOf(NATIVE_RESOURCE_PREFIX);
+        return start < 0 ? path : path.substring(start);
+    }
+
+    private static Path extractPrivately(String name, URL url) {
+        try {
+            final String path = url.getPath();
+            final String fileName = path.substring(path.lastIndexOf('/') + 1);
+            final File file = File.createTempFile(name + '-', '-' + fileName);
+            file.deleteOnExit();
+            try (InputStream in = url.openStream()) {
+                Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return file.toPath();
+        } catch (IOException e) {
+            final UnsatisfiedLinkError error = new UnsatisfiedLinkError("cannot extract " + url);
+            error.initCause(e);
+            throw error;
+        }
+    }
+
+    static String mapLibraryName(OS os, String name) {
+        switch (os) {
+            case windows:
+                return name + ".dll";
+            case osx:
+                return "lib" + name + ".dylib";
+            default:
+                return "lib" + name + ".so";
+        }
+    }
+
+    private static Arch[] compatibleArches(Arch arch) {
+        switch (arch) {
+            case x86_32:
+                return new Arch[] {Arch.x86_64};
+            case arm_32:
+                return new Arch[] {Arch.aarch_64};
+            case ppc_32:
+                return new Arch[] {Arch.ppc_64};
+            case ppcle_32:
+                return new Arch[] {Arch.ppcle_64};
+            case sparc_32:
+                return new Arch[] {Arch.sparc_64};
+            case s390_32:
+                return new Arch[] {Arch.s390_64};
+            default:
+                return new Arch[0];
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An immutable view of the assignments parsed by {@link OsReleaseParser}.
+ *
+ * <p>The view keeps the parsed content, without copying it, and the offsets of each key and raw value only.
+ * Keys and values are decoded on first access and then remembered.
+ */
+public final class OsRelease {
+    private final ByteBuffer data;
+    // keyStart, keyEnd, valueStart and valueEnd of each assignment, in order.
+    private final int[] spans;
+    private final int size;
+    private final String[] keys;
+    private final String[] values;
+
+    OsRelease(ByteBuffer data, int[] spans, int size) {
+        this.data = data;
+        this.spans = spans;
+        this.size = size;
+        this.keys = new String[size];
+        this.values = new String[size];
+    }
+
+    /**
+     * Returns the number of assignments, including reassignments of the same key.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the key of the assignment at the given index.
+     */
+    public String key(int index) {
+        checkIndex(index);
+        String key = keys[index];
+        if (key == null) {
+            final int start = spans[index * 4];
+            final char[] chars = new char[spans[index * 4 + 1] - start];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = (char) data.get(start + i);
+            }
+            key = new String(chars);
+            keys[index] = key;
+        }
+        return key;
+    }
+
+    /**
+     * Returns the unquoted value of the assignment at the given index.
+     */
+    public String value(int index) {
+        checkIndex(index);
+        String value = values[index];
+        if (value == null) {
+            value = unquote(data, spans[index * 4 + 2], spans[index * 4 + 3]);
+            values[index] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the unquoted value of the last assignment of the given key, or {@code null} if it is not assigned.
+     */
+    public String get(String key) {
+        final int index = indexOf(key);
+        return index < 0 ? null : value(index);
+    }
+
+    /**
+     * Returns {@code true} if the given key is assigned.
+     */
+    public boolean containsKey(String key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Returns the value of each key in a new map, in the order of their first assignment.
+     */
+    public Map<String, String> toMap() {
+        final Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(key(i), value(i));
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return "OsRelease" + toMap();
+    }
+
+    private int indexOf(String key) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (keyEquals(data, spans[i * 4], spans[i * 4 + 1], key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+    }
+
+    static boolean keyEquals(ByteBuffer data, int start, int end, String key) {
+        if (end - start != key.length()) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (data.get(i) != key.charAt(i - start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String unquote(ByteBuffer data, int start, int end) {
+        final byte[] out = new byte[end - start];
+        int n = 0;
+        int i = start;
+        while (i < end) {
+            final byte c = data.get(i);
+            if (c == '\'') {
+                for (i++; i < end && data.get(i) != '\''; i++) {
+                    out[n++] = data.get(i);
+                }
+                i++;
+            } else if (c == '"') {
+                for (i++; i < end && data.get(i) != '"'; i++) {
+                    if (data.get(i) == '\\' && i + 1 < end && isDoubleQuoteEscape(data.get(i + 1))) {
+                        i++;
+                        if (data.get(i) == '\n') {
+                            // line continuation
+                            continue;
+                        }
+                    }
+                    out[n++] = data.get(i);
+                }
+                i++;
+            } else if (c == '\\') {
+                if (i + 1 < end && data.get(i + 1) != '\n') {
+                    out[n++] = data.get(i + 1);
+                }
+                i += 2;
+            } else {
+                out[n++] = c;
+                i++;
+            }
+        }
+        return new String(out, 0, n, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isDoubleQuoteEscape(byte c) {
+        return c == '$' || c == '"' || c == '\\' || c == '`' || c == '\n';
+    }
+}
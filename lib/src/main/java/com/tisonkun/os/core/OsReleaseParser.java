@@ -0,0 +1,156 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Parses files in the format of {@code os-release(5)}: newline-separated {@code KEY=VALUE} assignments
+ * with shell-like quoting, blank lines and {@code #} comments.
+ *
+ * <p>Values may be unquoted, single-quoted, double-quoted or a concatenation of these. Within double quotes
+ * the backslash escapes {@code $}, {@code "}, {@code \}, {@code `} and the newline; outside of quotes it
+ * escapes any character. Lines that are not valid assignments are skipped.
+ *
+ * <p>The parser only indexes the assignments; values are unquoted when they are first accessed through the
+ * returned {@link OsRelease}.
+ */
+public final class OsReleaseParser {
+    private OsReleaseParser() {}
+
+    /**
+     * Parses all assignments in the given content, from its position to its limit. The content is parsed in
+     * place and must not be modified afterwards.
+     */
+    public static OsRelease parse(ByteBuffer content) {
+        return parse(content, (String[]) null);
+    }
+
+    /**
+     * Parses the assignments of the given keys only, skipping the others. The whole content is scanned, so
+     * that the last assignment of a key wins as in a shell. The content is parsed in place and must not be
+     * modified afterwards.
+     */
+    public static OsRelease parse(ByteBuffer content, String... keys) {
+        return parseAbsolute(content.slice(), keys);
+    }
+
+    /**
+     * Parses all assignments in the given content. The array must not be modified afterwards.
+     */
+    public static OsRelease parse(byte[] content) {
+        return parseAbsolute(ByteBuffer.wrap(content), null);
+    }
+
+    // Parses the data from index 0 to its limit, regardless of its position.
+    private static OsRelease parseAbsolute(ByteBuffer data, String[] keys) {
+        final int n = data.limit();
+        int[] spans = new int[16 * 4];
+        int count = 0;
+
+        int i = 0;
+        while (i < n) {
+            final byte c = data.get(i);
+            if (c == ' ' || c == '\t' || c == '\r' || c == '\n') {
+                i++;
+                continue;
+            }
+            if (c == '#') {
+                i = skipLine(data, i);
+                continue;
+            }
+
+            final int keyStart = i;
+            while (i < n && isKeyChar(data.get(i), i == keyStart)) {
+                i++;
+            }
+            final int keyEnd = i;
+            if (keyEnd == keyStart || i >= n || data.get(i) != '=') {
+                i = skipLine(data, i);
+                continue;
+            }
+
+            final int valueStart = ++i;
+            i = skipValue(data, i);
+            final int valueEnd = i;
+            i = skipLine(data, i);
+
+            if (keys != null && !isKey(data, keyStart, keyEnd, keys)) {
+                continue;
+            }
+            if (count * 4 == spans.length) {
+                spans = Arrays.copyOf(spans, spans.length * 2);
+            }
+            spans[count * 4] = keyStart;
+            spans[count * 4 + 1] = keyEnd;
+            spans[count * 4 + 2] = valueStart;
+            spans[count * 4 + 3] = valueEnd;
+            count++;
+        }
+        return new OsRelease(data, Arrays.copyOf(spans, count * 4), count);
+    }
+
+    private static boolean isKey(ByteBuffer data, int start, int end, String[] keys) {
+        for (String key : keys) {
+            if (OsRelease.keyEquals(data, start, end, key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isKeyChar(byte c, boolean first) {
+        return c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c == '_' || !first && c >= '0' && c <= '9';
+    }
+
+    // Returns the index after the value starting at i, which ends at the first unquoted whitespace.
+    private static int skipValue(ByteBuffer data, int i) {
+        final int n = data.limit();
+        while (i < n) {
+            final byte c = data.get(i);
+            if (c == ' ' || c == '\t' || c == '\r' || c == '\n') {
+                return i;
+            }
+            if (c == '\\') {
+                i += 2;
+            } else if (c == '\'') {
+                i++;
+                while (i < n && data.get(i) != '\'') {
+                    i++;
+                }
+                i++;
+            } else if (c == '"') {
+                i++;
+                while (i < n && data.get(i) != '"') {
+                    i += data.get(i) == '\\' ? 2 : 1;
+                }
+                i++;
+            } else {
+                i++;
+            }
+        }
+        return n;
+    }
+
+    private static int skipLine(ByteBuffer data, int i) {
+        while (i < data.limit() && data.get(i) != '\n') {
+            i++;
+        }
+        return i + 1;
+    }
+}
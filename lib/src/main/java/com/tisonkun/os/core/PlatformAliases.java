@@ -0,0 +1,145 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The registry of aliases used to normalize {@code os.name} and {@code os.arch}.
+ *
+ * <p>An {@code os.arch} value resolves to the {@link Arch} whose alias equals the normalized value, and an
+ * {@code os.name} value resolves to the {@link OS} whose alias is the longest prefix of the normalized value.
+ * Values are normalized by lowercasing them and dropping every character other than {@code [a-z0-9]}.
+ *
+ * <p>Site-specific aliases can be added with {@link #registerArch(String, Arch)} and
+ * {@link #registerOs(String, OS)}. A registered alias replaces the built-in alias of the same token, if any,
+ * but otherwise has no precedence: since {@code os.name} values resolve to the longest matching prefix, a
+ * registered prefix only applies to values that no longer prefix matches, e.g., registering {@code win} does
+ * not change how {@code Windows 11} resolves. Register them before the first detection, since cached results
+ * are not recomputed.
+ */
+public final class PlatformAliases {
+    private static final Object[][] ARCH_ALIASES = {
+        {Arch.x86_64, "x8664", "amd64", "ia32e", "em64t", "x64"},
+        {Arch.x86_32, "x8632", "x86", "i386", "i486", "i586", "i686", "ia32", "x32"},
+        {Arch.itanium_64, "ia64", "ia64w", "itanium64"},
+        {Arch.itanium_32, "ia64n"},
+        {Arch.sparc_32, "sparc", "sparc32"},
+        {Arch.sparc_64, "sparcv9", "sparc64"},
+        {Arch.arm_32, "arm", "arm32"},
+        {Arch.aarch_64, "aarch64"},
+        {Arch.mips_32, "mips", "mips32"},
+        {Arch.mipsel_32, "mipsel", "mips32el"},
+        {Arch.mips_64, "mips64"},
+        {Arch.mipsel_64, "mips64el"},
+        {Arch.ppc_32, "ppc", "ppc32"},
+        {Arch.ppcle_32, "ppcle", "ppc32le"},
+        {Arch.ppc_64, "ppc64"},
+        {Arch.ppcle_64, "ppc64le"},
+        {Arch.s390_32, "s390"},
+        {Arch.s390_64, "s390x"},
+        {Arch.riscv, "riscv", "riscv32"},
+        {Arch.riscv64, "riscv64"},
+        {Arch.e2k, "e2k"},
+        {Arch.loongarch_64, "loongarch64"},
+    };
+
+    private static final Object[][] OS_PREFIXES = {
+        {OS.aix, "aix"},
+        {OS.hpux, "hpux"},
+        {OS.linux, "linux"},
+        {OS.osx, "mac", "osx"},
+        {OS.freebsd, "freebsd"},
+        {OS.openbsd, "openbsd"},
+        {OS.netbsd, "netbsd"},
+        {OS.sunos, "solaris", "sunos"},
+        {OS.windows, "windows"},
+        {OS.zos, "zos"},
+    };
+
+    private static final Map<String, AliasIndex.Alias<Arch>> archAliases = new LinkedHashMap<>();
+    private static final Map<String, AliasIndex.Alias<OS>> osAliases = new LinkedHashMap<>();
+
+    private static volatile AliasIndex<Arch> archIndex;
+    private static volatile AliasIndex<OS> osIndex;
+
+    static {
+        for (Object[] row : ARCH_ALIASES) {
+            for (int i = 1; i < row.length; i++) {
+                archAliases.put((String) row[i], new AliasIndex.Alias<>((Arch) row[0], AliasIndex.EXACT));
+            }
+        }
+        for (Object[] row : OS_PREFIXES) {
+            for (int i = 1; i < row.length; i++) {
+                osAliases.put((String) row[i], new AliasIndex.Alias<>((OS) row[0], AliasIndex.PREFIX));
+            }
+        }
+        // avoid the names such as os4000
+        osAliases.put("os400", new AliasIndex.Alias<>(OS.os400, AliasIndex.PREFIX_NOT_DIGIT));
+        archIndex = new AliasIndex<>(Arch.class, archAliases);
+        osIndex = new AliasIndex<>(OS.class, osAliases);
+    }
+
+    private PlatformAliases() {}
+
+    /**
+     * Registers an {@code os.arch} alias. The alias is normalized before registering.
+     *
+     * @param alias the {@code os.arch} value, e.g., {@code armv7l}
+     * @param arch the architecture the alias resolves to
+     * @throws IllegalArgumentException if the alias is empty after normalization
+     */
+    public static synchronized void registerArch(String alias, Arch arch) {
+        archAliases.put(normalizeAlias(alias), new AliasIndex.Alias<>(arch, AliasIndex.EXACT));
+        archIndex = new AliasIndex<>(Arch.class, archAliases);
+    }
+
+    /**
+     * Registers an {@code os.name} prefix. The prefix is normalized before registering.
+     *
+     * @param prefix the prefix of {@code os.name} values, e.g., {@code dragonfly}
+     * @param os the operating system the prefix resolves to
+     * @throws IllegalArgumentException if the prefix is empty after normalization
+     */
+    public static synchronized void registerOs(String prefix, OS os) {
+        osAliases.put(normalizeAlias(prefix), new AliasIndex.Alias<>(os, AliasIndex.PREFIX));
+        osIndex = new AliasIndex<>(OS.class, osAliases);
+    }
+
+    /**
+     * Resolves an {@code os.arch} value, returning {@link Arch#unknown} if no alias matches.
+     */
+    public static Arch resolveArch(String value) {
+        return value == null ? Arch.unknown : archIndex.resolve(value, Arch.unknown);
+    }
+
+    /**
+     * Resolves an {@code os.name} value, returning {@link OS#unknown} if no prefix matches.
+     */
+    public static OS resolveOs(String value) {
+        return value == null ? OS.unknown : osIndex.resolve(value, OS.unknown);
+    }
+
+    private static String normalizeAlias(String alias) {
+        final String normalized = Detector.normalize(alias);
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("empty alias: " + alias);
+        }
+        return normalized;
+    }
+}
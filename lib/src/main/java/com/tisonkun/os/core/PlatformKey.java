@@ -0,0 +1,238 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Packs a platform into a single {@code long}, so that it can key primitive-specialized maps without boxing
+ * and be compared with {@code ==}. The layout, from the least significant bit, is:
+ *
+ * <ul>
+ * <li>bits 0-7: the {@link OS} ordinal</li>
+ * <li>bits 8-15: the {@link Arch} ordinal</li>
+ * <li>bits 16-23: the low 8 bits of the bitness</li>
+ * <li>bits 24-25: the byte order of the architecture; 0 if unknown, 1 for little endian, 2 for big endian</li>
+ * <li>bits 26-31: the high 6 bits of the bitness</li>
+ * <li>bits 32-47: the interned id of the Linux release ID; 0 if absent</li>
+ * <li>bits 48-63: the interned id of the Linux release version; 0 if absent</li>
+ * </ul>
+ *
+ * <p>A bitness that doesn't fit in 14 bits is packed as guessed from the architecture, like
+ * {@link BulkClassifier} does.
+ *
+ * <p>Release IDs and versions are interned in process-wide tables, so keys are only meaningful within the
+ * process that created them. Each table holds up to {@value #MAX_INTERNED} names, which covers the releases
+ * seen in practice many times over. Once a table is full, {@link #of} throws for new names rather than
+ * packing keys that would compare equal for different releases; {@link #tryOf} returns no key instead.
+ */
+public final class PlatformKey {
+    private static final OS[] OSES = OS.values();
+    private static final Arch[] ARCHES = Arch.values();
+    private static final int LITTLE_ENDIAN = 1;
+    private static final int BIG_ENDIAN = 2;
+    static final int MAX_INTERNED = 1024;
+    private static final int MAX_BITNESS = 0x3FFF;
+
+    private static final NameTable RELEASE_IDS = new NameTable(MAX_INTERNED);
+    private static final NameTable RELEASE_VERSIONS = new NameTable(MAX_INTERNED);
+
+    private PlatformKey() {}
+
+    /**
+     * Packs the detected platform.
+     *
+     * @throws IllegalStateException if the release ID or version is new and its table is full
+     */
+    public static long of(Detected detected) {
+        final LinuxRelease linuxRelease = detected.linuxRelease;
+        return of(
+                detected.os,
+                detected.arch,
+                detected.bitness,
+                linuxRelease == null ? null : linuxRelease.id,
+                linuxRelease == null ? null : linuxRelease.version);
+    }
+
+    /**
+     * Packs the given platform.
+     *
+     * @param bitness the bitness; a negative one or one above {@code 16383} is guessed from the architecture
+     * @param releaseId the Linux release ID, or {@code null}
+     * @param releaseVersion the Linux release version, or {@code null}
+     * @throws IllegalStateException if the release ID or version is new and its table is full
+     */
+    public static long of(OS os, Arch arch, int bitness, String releaseId, String releaseVersion) {
+        final OptionalLong key = tryOf(os, arch, bitness, releaseId, releaseVersion);
+        if (!key.isPresent()) {
+            throw new IllegalStateException("too many Linux releases to intern: " + releaseId + " " + releaseVersion);
+        }
+        return key.getAsLong();
+    }
+
+    /**
+     * Like {@link #of(OS, Arch, int, String, String)}, but returns no key if the release ID or version is new
+     * and its table is full.
+     */
+    public static OptionalLong tryOf(OS os, Arch arch, int bitness, String releaseId, String releaseVersion) {
+        final int id = RELEASE_IDS.intern(releaseId);
+        final int version = RELEASE_VERSIONS.intern(releaseVersion);
+        if (id < 0 || version < 0) {
+            return OptionalLong.empty();
+        }
+        if (bitness < 0 || bitness > MAX_BITNESS) {
+            bitness = Detector.guessBitnessFromArchitecture(arch.name());
+        }
+        return OptionalLong.of(os.ordinal()
+                | arch.ordinal() << 8
+                | (bitness & 0xFF) << 16
+                | byteOrderBits(arch) << 24
+                | (long) (bitness >>> 8) << 26
+                | (long) id << 32
+                | (long) version << 48);
+    }
+
+    public static OS os(long key) {
+        return OSES[(int) key & 0xFF];
+    }
+
+    public static Arch arch(long key) {
+        return ARCHES[(int) (key >>> 8) & 0xFF];
+    }
+
+    public static int bitness(long key) {
+        return (int) (key >>> 16) & 0xFF | ((int) (key >>> 26) & 0x3F) << 8;
+    }
+
+    /**
+     * Returns the byte order of the architecture, or {@code null} if it is unknown or configurable.
+     */
+    public static ByteOrder byteOrder(long key) {
+        switch ((int) (key >>> 24) & 0x3) {
+            case LITTLE_ENDIAN:
+                return ByteOrder.LITTLE_ENDIAN;
+            case BIG_ENDIAN:
+                return ByteOrder.BIG_ENDIAN;
+            default:
+                return null;
+        }
+    }
+
+    public static String releaseId(long key) {
+        return RELEASE_IDS.name((int) (key >>> 32) & 0xFFFF);
+    }
+
+    public static String releaseVersion(long key) {
+        return RELEASE_VERSIONS.name((int) (key >>> 48) & 0xFFFF);
+    }
+
+    /**
+     * Returns the interned classifier of the key, e.g., {@code linux-x86_64}.
+     */
+    public static String classifier(long key) {
+        return Detector.classifier(os(key), arch(key));
+    }
+
+    /**
+     * Returns the key with the release ID and version cleared, which only identifies OS, arch, bitness and
+     * byte order.
+     */
+    public static long withoutRelease(long key) {
+        return key & 0xFFFFFFFFL;
+    }
+
+    private static int byteOrderBits(Arch arch) {
+        switch (arch) {
+            case x86_64:
+            case x86_32:
+            case arm_32:
+            case aarch_64:
+            case mipsel_32:
+            case mipsel_64:
+            case ppcle_32:
+            case ppcle_64:
+            case riscv:
+            case riscv64:
+            case e2k:
+            case loongarch_64:
+                return LITTLE_ENDIAN;
+            case sparc_32:
+            case sparc_64:
+            case mips_32:
+            case mips_64:
+            case ppc_32:
+            case ppc_64:
+            case s390_32:
+            case s390_64:
+                return BIG_ENDIAN;
+            default:
+                // Itanium is bi-endian.
+                return 0;
+        }
+    }
+
+    /**
+     * Interns names to ids starting at 1, with 0 for {@code null} and -1 for new names once full.
+     */
+    static final class NameTable {
+        private final int capacity;
+        private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+        private volatile String[] names = new String[64];
+        private int nextId = 1;
+
+        NameTable(int capacity) {
+            this.capacity = capacity;
+        }
+
+        int intern(String name) {
+            if (name == null) {
+                return 0;
+            }
+            final Integer id = ids.get(name);
+            return id != null ? id : register(name);
+        }
+
+        private synchronized int register(String name) {
+            final Integer existing = ids.get(name);
+            if (existing != null) {
+                return existing;
+            }
+            if (nextId > capacity) {
+                // Keep the table bounded in processes that classify arbitrary strings.
+                return -1;
+            }
+            final int id = nextId++;
+            String[] current = names;
+            if (id >= current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[id] = name;
+            // Publish the name before the id, so that any key carrying the id can be decoded.
+            names = current;
+            ids.put(name, id);
+            return id;
+        }
+
+        String name(int id) {
+            return id == 0 ? null : names[id];
+        }
+    }
+}
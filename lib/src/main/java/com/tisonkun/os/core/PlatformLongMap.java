@@ -0,0 +1,84 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+/**
+ * A {@link PlatformMap} specialized for {@code long} values, which avoids boxing on reads and writes.
+ *
+ * <p>This class is not thread-safe. A map populated up front and then safely published can be read
+ * concurrently.
+ */
+public final class PlatformLongMap {
+    private final PlatformSlots slots = new PlatformSlots();
+    private final long[] values = new long[PlatformSlots.SIZE];
+
+    /**
+     * Associates the value with exactly the given OS and arch.
+     *
+     * @return whether exactly this pair had a value before
+     */
+    public boolean put(OS os, Arch arch, long value) {
+        final int index = PlatformSlots.index(os, arch);
+        values[index] = value;
+        return slots.set(index, true);
+    }
+
+    /**
+     * Removes the value of exactly the given OS and arch.
+     *
+     * @return whether exactly this pair had a value before
+     */
+    public boolean remove(OS os, Arch arch) {
+        final int index = PlatformSlots.index(os, arch);
+        values[index] = 0;
+        return slots.set(index, false);
+    }
+
+    /**
+     * Returns the value for the given OS and arch after fallbacks, or {@code defaultValue} if there is none.
+     */
+    public long get(OS os, Arch arch, long defaultValue) {
+        return resolved(PlatformSlots.index(os, arch), defaultValue);
+    }
+
+    public long get(Detected detected, long defaultValue) {
+        return get(detected.os, detected.arch, defaultValue);
+    }
+
+    /**
+     * Returns the value for the OS and arch of a {@link PlatformKey} after fallbacks, or {@code defaultValue}.
+     */
+    public long get(long platformKey, long defaultValue) {
+        return resolved(PlatformSlots.index(platformKey), defaultValue);
+    }
+
+    /**
+     * Returns whether a value is present for the given OS and arch, including fallbacks.
+     */
+    public boolean containsKey(OS os, Arch arch) {
+        return slots.resolve(PlatformSlots.index(os, arch)) >= 0;
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    private long resolved(int index, long defaultValue) {
+        final int slot = slots.resolve(index);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+}
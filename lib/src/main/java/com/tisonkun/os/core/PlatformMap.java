@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.util.Objects;
+
+/**
+ * A map keyed by {@link OS} and {@link Arch}, backed by a flat array indexed by their ordinals.
+ *
+ * <p>{@link #get(OS, Arch)} falls back from {@code (os, arch)} to {@code (os, unknown)}, {@code (unknown, arch)}
+ * and finally {@code (unknown, unknown)}, so that entries registered against {@code unknown} act as defaults.
+ * Writes are comparatively expensive since they re-resolve these chains; reads are a couple of array loads.
+ *
+ * <p>This class is not thread-safe. A map populated up front and then safely published can be read
+ * concurrently.
+ *
+ * @param <V> the type of values
+ * @see PlatformIntMap
+ * @see PlatformLongMap
+ */
+public final class PlatformMap<V> {
+    private final PlatformSlots slots = new PlatformSlots();
+    private final Object[] values = new Object[PlatformSlots.SIZE];
+
+    /**
+     * Associates the value with exactly the given OS and arch.
+     *
+     * @return the previous value of exactly this pair, or {@code null}
+     */
+    public V put(OS os, Arch arch, V value) {
+        Objects.requireNonNull(value, "value");
+        final int index = PlatformSlots.index(os, arch);
+        final V previous = value(index);
+        values[index] = value;
+        slots.set(index, true);
+        return previous;
+    }
+
+    /**
+     * Removes the value of exactly the given OS and arch.
+     *
+     * @return the removed value, or {@code null}
+     */
+    public V remove(OS os, Arch arch) {
+        final int index = PlatformSlots.index(os, arch);
+        final V previous = value(index);
+        values[index] = null;
+        slots.set(index, false);
+        return previous;
+    }
+
+    /**
+     * Returns the value for the given OS and arch after fallbacks, or {@code null} if there is none.
+     */
+    public V get(OS os, Arch arch) {
+        return resolved(PlatformSlots.index(os, arch));
+    }
+
+    public V get(Detected detected) {
+        return get(detected.os, detected.arch);
+    }
+
+    /**
+     * Returns the value for the OS and arch of a {@link PlatformKey} after fallbacks, or {@code null}.
+     */
+    public V get(long platformKey) {
+        return resolved(PlatformSlots.index(platformKey));
+    }
+
+    /**
+     * Returns the value of exactly the given OS and arch without fallbacks, or {@code null}.
+     */
+    public V getExact(OS os, Arch arch) {
+        return value(PlatformSlots.index(os, arch));
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    private V resolved(int index) {
+        final int slot = slots.resolve(index);
+        return slot < 0 ? null : value(slot);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int index) {
+        return (V) values[index];
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.util.Arrays;
+
+/**
+ * Shared slot layout of {@link PlatformMap}, {@link PlatformIntMap} and {@link PlatformLongMap}.
+ *
+ * <p>Each {@link OS} and {@link Arch} pair owns one slot at {@code os.ordinal() * ARCH_COUNT + arch.ordinal()}.
+ * Lookups fall back from {@code (os, arch)} to {@code (os, unknown)}, {@code (unknown, arch)} and finally
+ * {@code (unknown, unknown)}; the chain is resolved on every write, so that a read is a single array load.
+ */
+final class PlatformSlots {
+    static final int ARCH_COUNT = Arch.values().length;
+    static final int SIZE = OS.values().length * ARCH_COUNT;
+
+    private static final int UNKNOWN_OS = OS.unknown.ordinal();
+    private static final int UNKNOWN_ARCH = Arch.unknown.ordinal();
+
+    private final boolean[] present = new boolean[SIZE];
+    private final int[] resolved = new int[SIZE];
+    private int size;
+
+    PlatformSlots() {
+        Arrays.fill(resolved, -1);
+    }
+
+    static int index(OS os, Arch arch) {
+        return os.ordinal() * ARCH_COUNT + arch.ordinal();
+    }
+
+    static int index(long platformKey) {
+        return ((int) platformKey & 0xFF) * ARCH_COUNT + ((int) (platformKey >>> 8) & 0xFF);
+    }
+
+    /**
+     * Returns the slot holding the value for the given slot after fallbacks, or -1 if there is none.
+     */
+    int resolve(int index) {
+        return resolved[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Marks the slot present or absent, and returns whether it was present before.
+     */
+    boolean set(int index, boolean value) {
+        final boolean previous = present[index];
+        if (previous != value) {
+            present[index] = value;
+            size += value ? 1 : -1;
+            rebuild();
+        }
+        return previous;
+    }
+
+    private void rebuild() {
+        for (int os = 0; os < SIZE / ARCH_COUNT; os++) {
+            for (int arch = 0; arch < ARCH_COUNT; arch++) {
+                resolved[os * ARCH_COUNT + arch] = firstPresent(
+                        os * ARCH_COUNT + arch,
+                        os * ARCH_COUNT + UNKNOWN_ARCH,
+                        UNKNOWN_OS * ARCH_COUNT + arch,
+                        UNKNOWN_OS * ARCH_COUNT + UNKNOWN_ARCH);
+            }
+        }
+    }
+
+    private int firstPresent(int... candidates) {
+        for (int candidate : candidates) {
+            if (present[candidate]) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+/**
+ * Helpers for the files that only the current user may write, i.e., the shared detection store and the
+ * extracted native libraries.
+ */
+final class PrivateFiles {
+    private PrivateFiles() {}
+
+    /**
+     * Creates the directory accessible to the current user only. Returns {@code null} if the
+     * directory exists but belongs to another user or is writable by others, so that nobody else can plant
+     * a result.
+     */
+    static Path createDirectory(Path dir) throws IOException {
+        final boolean posix =
+                FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+        if (!Files.isDirectory(dir)) {
+            if (posix) {
+                Files.createDirectories(
+                        dir, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+            } else {
+                Files.createDirectories(dir);
+            }
+        }
+        return isPrivate(dir) ? dir : null;
+    }
+
+    /**
+     * Returns whether the given file belongs to the current user and is not writable by the group or others.
+     * Symbolic links are not followed, so a link is never private. Always {@code true} without POSIX
+     * attributes.
+     */
+    static boolean isPrivate(Path path) throws IOException {
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            return true;
+        }
+        final PosixFileAttributes attrs =
+                Files.readAttributes(path, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        if (attrs.isSymbolicLink() || !attrs.owner().getName().equals(System.getProperty("user.name"))) {
+            return false;
+        }
+        final Set<PosixFilePermission> permissions = attrs.permissions();
+        return !permissions.contains(PosixFilePermission.GROUP_WRITE)
+                && !permissions.contains(PosixFilePermission.OTHERS_WRITE);
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Stores the {@link Detected} result in a small file shared by the JVMs on the same host, so that a
+ * {@link DetectionCache} backed by this store can skip the detection if another JVM has already run it
+ * against the same inputs.
+ *
+ * <p>The file starts with a 16-byte header: the magic {@code OSDT}, the format version, the length and the
+ * CRC-32 of the payload. The payload holds the {@link DetectionInputs} the result was detected from,
+ * followed by the result itself. Readers ignore the file if it or its directory is not private to the
+ * current user, or if the header, the checksum or the inputs don't match. Writers write a temporary file
+ * and atomically rename it over the old one, so that concurrent writers never leave a partially written
+ * file behind.
+ */
+public final class SharedDetectionStore {
+    private static final int MAGIC = 0x4F534454; // "OSDT"
+    private static final short FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int MAX_PAYLOAD_SIZE = 64 * 1024;
+    private static final String FILE_NAME = "detected-v" + FORMAT_VERSION + ".bin";
+
+    private final Path file;
+
+    public SharedDetectionStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns a store under {@code $XDG_RUNTIME_DIR/os-detector}, or a per-user directory under
+     * {@code /dev/shm} or {@code java.io.tmpdir} if the runtime directory is not available.
+     */
+    public static SharedDetectionStore atDefaultLocation() {
+        final String runtimeDir = System.getenv("XDG_RUNTIME_DIR");
+        if (runtimeDir != null && !runtimeDir.isEmpty() && Files.isDirectory(Paths.get(runtimeDir))) {
+            return new SharedDetectionStore(Paths.get(runtimeDir, "os-detector", FILE_NAME));
+        }
+        final String dirName = "os-detector-" + System.getProperty("user.name", "unknown");
+        final Path shm = Paths.get("/dev/shm");
+        if (Files.isDirectory(shm) && Files.isWritable(shm)) {
+            return new SharedDetectionStore(shm.resolve(dirName).resolve(FILE_NAME));
+        }
+        return new SharedDetectionStore(Paths.get(System.getProperty("java.io.tmpdir"), dirName, FILE_NAME));
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the stored result if it was detected from the given inputs, or {@code null} if the file is
+     * missing, stale or corrupt.
+     */
+    Detected load(DetectionInputs inputs) {
+        try {
+            if (!PrivateFiles.isPrivate(file.toAbsolutePath().getParent()) || !PrivateFiles.isPrivate(file)) {
+                // Planted or tampered with by another user.
+                return null;
+            }
+        } catch (IOException | RuntimeException ignored) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < HEADER_SIZE || size > HEADER_SIZE + MAX_PAYLOAD_SIZE) {
+                return null;
+            }
+            // Read rather than map the small file, so that no mapping outlives the load and blocks the
+            // replacement in store() on Windows.
+            final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading
+            }
+            if (buffer.hasRemaining()) {
+                return null;
+            }
+            buffer.flip();
+            if (buffer.getInt() != MAGIC || buffer.getShort() != FORMAT_VERSION) {
+                return null;
+            }
+            buffer.getShort(); // reserved
+            final int length = buffer.getInt();
+            final int checksum = buffer.getInt();
+            if (length != size - HEADER_SIZE) {
+                return null;
+            }
+            final ByteBuffer payload = buffer.slice();
+            final CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                return null;
+            }
+            if (!inputs.equals(readInputs(payload))) {
+                return null;
+            }
+            return readDetected(payload);
+        } catch (IOException | RuntimeException ignored) {
+            // Missing, unreadable or corrupt: fall back to live detection.
+            return null;
+        }
+    }
+
+    /**
+     * Stores the result detected from the given inputs, replacing any previously stored result. Failures are
+     * ignored since the store is only an optimization.
+     */
+    void store(DetectionInputs inputs, Detected detected) {
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+            final DataOutputStream out = new DataOutputStream(bytes);
+            writeInputs(out, inputs);
+            writeDetected(out, detected);
+            out.flush();
+            final byte[] payload = bytes.toByteArray();
+            final CRC32 crc = new CRC32();
+            crc.update(payload, 0, payload.length);
+
+            final ByteBuffer content = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+            content.putInt(MAGIC)
+                    .putShort(FORMAT_VERSION)
+                    .putShort((short) 0)
+                    .putInt(payload.length)
+                    .putInt((int) crc.getValue())
+                    .put(payload)
+                    .flip();
+
+            final Path dir = PrivateFiles.createDirectory(file.getParent());
+            if (dir == null) {
+                return;
+            }
+            final Path tmp = Files.createTempFile(dir, FILE_NAME, ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                    while (content.hasRemaining()) {
+                        channel.write(content);
+                    }
+                }
+                try {
+                    Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException | RuntimeException ignored) {
+            // Just absorb. The next JVM will detect on its own.
+        }
+    }
+
+    private static void writeInputs(DataOutputStream out, DetectionInputs inputs) throws IOException {
+        out.writeInt(inputs.properties.length);
+        for (String property : inputs.properties) {
+            writeString(out, property);
+        }
+        out.writeInt(inputs.files.length);
+        for (long value : inputs.files) {
+            out.writeLong(value);
+        }
+    }
+
+    private static DetectionInputs readInputs(ByteBuffer in) {
+        final String[] properties = new String[readCount(in)];
+        for (int i = 0; i < properties.length; i++) {
+            properties[i] = readString(in);
+        }
+        final long[] files = new long[readCount(in)];
+        for (int i = 0; i < files.length; i++) {
+            files[i] = in.getLong();
+        }
+        return new DetectionInputs(properties, files);
+    }
+
+    private static void writeDetected(DataOutputStream out, Detected detected) throws IOException {
+        out.writeInt(detected.bitness);
+        writeString(out, detected.version);
+        writeString(out, detected.os.name());
+        writeString(out, detected.arch.name());
+        final LinuxRelease linuxRelease = detected.linuxRelease;
+        out.writeBoolean(linuxRelease != null);
+        if (linuxRelease != null) {
+            writeString(out, linuxRelease.id);
+            writeString(out, linuxRelease.version);
+            out.writeInt(linuxRelease.likes.size());
+            for (String like : linuxRelease.likes) {
+                writeString(out, like);
+            }
+        }
+    }
+
+    private static Detected readDetected(ByteBuffer in) {
+        final int bitness = in.getInt();
+        final String version = readString(in);
+        final OS os = OS.valueOf(readString(in));
+        final Arch arch = Arch.valueOf(readString(in));
+        LinuxRelease linuxRelease = null;
+        if (in.get() != 0) {
+            final String id = readString(in);
+            final String releaseVersion = readString(in);
+            final List<String> likes = new ArrayList<>();
+            for (int i = readCount(in); i > 0; i--) {
+                likes.add(readString(in));
+            }
+            linuxRelease = new LinuxRelease(id, releaseVersion, likes);
+        }
+        if (in.hasRemaining()) {
+            throw new IllegalStateException("trailing bytes");
+        }
+        return new Detected(bitness, version, Detector.classifier(os, arch), os, arch, linuxRelease);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        final int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        final byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readCount(ByteBuffer in) {
+        final int count = in.getInt();
+        if (count < 0 || count > in.remaining()) {
+            throw new IllegalStateException("invalid count: " + count);
+        }
+        return count;
+    }
+}
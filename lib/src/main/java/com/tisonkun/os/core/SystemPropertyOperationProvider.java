@@ -16,6 +16,8 @@
 
 package com.tisonkun.os.core;
 
+import java.util.Map;
+
 /**
  * Interface exposing system property operations.
  */
@@ -47,4 +49,17 @@ public interface SystemPropertyOperationProvider {
      * @return     the previous value of the system property, or {@code null} if it did not have one.
      */
     String setSystemProperty(String name, String value);
+
+    /**
+     * Sets the given system properties. The default sets them one by one with
+     * {@link #setSystemProperty(String, String)}; implementations may write them in bulk and skip the
+     * properties whose value is unchanged.
+     *
+     * @param      properties the names and values of the system properties.
+     */
+    default void setSystemProperties(Map<String, String> properties) {
+        for (Map.Entry<String, String> e : properties.entrySet()) {
+            setSystemProperty(e.getKey(), e.getValue());
+        }
+    }
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import java.util.function.Supplier;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Emits Java Flight Recorder events for {@link DetectionEvent}s while a recording is running. The detection
+ * listener is only registered during recordings, so that detection is not timed otherwise. The events of the
+ * timed phases are begun by {@link #begin} when the phase starts and ended when the phase is emitted, so that
+ * their JFR start time and duration cover the phase.
+ */
+final class JfrSupport {
+    private static final JfrDetectionListener LISTENER = new JfrDetectionListener();
+
+    // Written under JfrSupport.class.
+    private static volatile boolean listening;
+
+    private JfrSupport() {}
+
+    static void install() {
+        // Does not initialize the recorder; the callbacks fire once it is initialized by a recording.
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recorderInitialized(FlightRecorder recorder) {
+                update(recorder);
+            }
+
+            @Override
+            public void recordingStateChanged(Recording recording) {
+                update(FlightRecorder.getFlightRecorder());
+            }
+        });
+    }
+
+    static void begin(DetectionEvent.Phase phase) {
+        if (listening) {
+            LISTENER.begin(phase);
+        }
+    }
+
+    private static synchronized void update(FlightRecorder recorder) {
+        final boolean running = recorder.getRecordings().stream().anyMatch(r -> r.getState() == RecordingState.RUNNING);
+        if (running == listening) {
+            return;
+        }
+        if (running) {
+            DetectionEvents.addListener(LISTENER);
+        } else {
+            DetectionEvents.removeListener(LISTENER);
+        }
+        listening = running;
+    }
+
+    private static final class JfrDetectionListener implements DetectionListener {
+        // The release and bitness sources of the detection running on this thread.
+        private final ThreadLocal<String[]> sources = ThreadLocal.withInitial(() -> new String[2]);
+
+        // The events begun on this thread, by the ordinal of their phase.
+        private final ThreadLocal<Event[]> begun =
+                ThreadLocal.withInitial(() -> new Event[DetectionEvent.Phase.values().length]);
+
+        void begin(DetectionEvent.Phase phase) {
+            final Event event;
+            switch (phase) {
+                case FILE_PROBE:
+                    event = new OsReleaseReadEvent();
+                    break;
+                case DETECTION:
+                    event = new DetectionJfrEvent();
+                    break;
+                case NATIVE_LOAD:
+                    event = new NativeLibraryLoadEvent();
+                    break;
+                default:
+                    return;
+            }
+            event.begin();
+            begun.get()[phase.ordinal()] = event;
+        }
+
+        /**
+         * Ends the event begun for the phase on this thread. A phase that started before the recording did, or
+         * that spans threads like {@link Detector#detectAsync}, has no begun event; it is reported with a zero
+         * duration.
+         */
+        @SuppressWarnings("unchecked")
+        private <T extends Event> T end(DetectionEvent.Phase phase, Supplier<T> factory) {
+            final Event[] events = begun.get();
+            Event event = events[phase.ordinal()];
+            events[phase.ordinal()] = null;
+            if (event == null) {
+                event = factory.get();
+            }
+            event.end();
+            return (T) event;
+        }
+
+        @Override
+        public void onEvent(DetectionEvent event) {
+            switch (event.phase) {
+                case RELEASE:
+                    sources.get()[0] = event.subject;
+                    break;
+                case BITNESS:
+                    sources.get()[1] = event.subject;
+                    break;
+                case FILE_PROBE:
+                    final OsReleaseReadEvent read = end(DetectionEvent.Phase.FILE_PROBE, OsReleaseReadEvent::new);
+                    if (read.shouldCommit()) {
+                        read.path = event.subject;
+                        read.bytes = event.bytes;
+                        read.release = event.result;
+                        read.commit();
+                    }
+                    break;
+                case DETECTION:
+                    final String[] current = sources.get();
+                    final DetectionJfrEvent detection = end(DetectionEvent.Phase.DETECTION, DetectionJfrEvent::new);
+                    if (detection.shouldCommit()) {
+                        detection.classifier = event.subject;
+                        detection.release = event.result;
+                        detection.releaseSource = event.result != null ? current[0] : null;
+                        detection.bitnessSource = current[1];
+                        detection.commit();
+                    }
+                    current[0] = null;
+                    current[1] = null;
+                    break;
+                case NATIVE_LOAD:
+                    final NativeLibraryLoadEvent load =
+                            end(DetectionEvent.Phase.NATIVE_LOAD, NativeLibraryLoadEvent::new);
+                    if (load.shouldCommit()) {
+                        load.library = event.subject;
+                        load.path = event.result;
+                        load.success = event.result != null;
+                        load.commit();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
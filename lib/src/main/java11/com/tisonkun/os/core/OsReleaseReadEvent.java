@@ -0,0 +1,41 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.tisonkun.os.OsReleaseRead")
+@Label("OS Release Read")
+@Category("OS Detector")
+@Description("A probe of a Linux release file, including reading and parsing")
+final class OsReleaseReadEvent extends Event {
+    @Label("Path")
+    String path;
+
+    @Label("Bytes Read")
+    @Description("The size of the file, or -1 if it could not be read")
+    @DataAmount
+    long bytes;
+
+    @Label("Release")
+    String release;
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class BulkClassifierTest {
+    private static final String[] OS_NAMES = {"Linux", "Mac OS X", "Windows 11", "Linux", "Plan 9", "Linux"};
+    private static final String[] OS_ARCHS = {"amd64", "aarch64", "x86", "amd64", "mips", "i686"};
+    private static final String[] DATA_MODELS = {"64", "64", null, "64", "", "32"};
+
+    @Test
+    void testClassify() {
+        final int[] codes = new BulkClassifier().classify(OS_NAMES, OS_ARCHS, DATA_MODELS);
+        assertThat(codes).hasSize(OS_NAMES.length);
+        assertThat(BulkClassifier.os(codes[0])).isEqualTo(OS.linux);
+        assertThat(BulkClassifier.arch(codes[0])).isEqualTo(Arch.x86_64);
+        assertThat(BulkClassifier.bitness(codes[0])).isEqualTo(64);
+        assertThat(BulkClassifier.classifier(codes[1])).isSameAs(Detector.classifier(OS.osx, Arch.aarch_64));
+        assertThat(BulkClassifier.bitness(codes[2])).isEqualTo(32);
+        assertThat(BulkClassifier.os(codes[4])).isEqualTo(OS.unknown);
+        assertThat(BulkClassifier.arch(codes[4])).isEqualTo(Arch.mips_32);
+        assertThat(codes[3]).isEqualTo(codes[0]);
+    }
+
+    @Test
+    void testCacheDoesNotChangeResults() {
+        final int[] expected = new BulkClassifier(0).classify(OS_NAMES, OS_ARCHS, DATA_MODELS);
+        final BulkClassifier classifier = new BulkClassifier(2);
+        for (int i = 0; i < 3; i++) {
+            assertThat(classifier.classify(OS_NAMES, OS_ARCHS, DATA_MODELS)).isEqualTo(expected);
+            assertThat(classifier.classifyParallel(OS_NAMES, OS_ARCHS, DATA_MODELS))
+                    .isEqualTo(expected);
+        }
+        final int[] streamed = classifier
+                .classify(Stream.of(new String[] {"Linux", "amd64"}, new String[] {"Linux", "i686", "32"}))
+                .toArray();
+        assertThat(streamed).containsExactly(expected[0], expected[5]);
+    }
+
+    @Test
+    void testBitnessLikeDetector() {
+        final BulkClassifier classifier = new BulkClassifier();
+        assertThat(BulkClassifier.bitness(classifier.classify("AIX", "ppc64", null, "32")))
+                .isEqualTo(32);
+        assertThat(BulkClassifier.bitness(classifier.classify("AIX", "ppc64", "", "32")))
+                .isEqualTo(32);
+        assertThat(BulkClassifier.bitness(classifier.classify("AIX", "ppc64", "64", "32")))
+                .isEqualTo(64);
+        assertThat(BulkClassifier.bitness(classifier.classify("Linux", "riscv128", "128", null)))
+                .isEqualTo(128);
+        assertThat(BulkClassifier.bitness(classifier.classify("Linux", "amd64", "1024", null)))
+                .isEqualTo(1024);
+        assertThat(BulkClassifier.bitness(classifier.classify("Linux", "amd64", "99999999999", null)))
+                .isEqualTo(64);
+        assertThat(classifier
+                        .classify(Stream.<String[]>of(new String[] {"AIX", "ppc64", null, "32"}))
+                        .toArray())
+                .containsExactly(classifier.classify("AIX", "ppc64", null, "32"));
+    }
+
+    @Test
+    void testCacheSizeIsBounded() {
+        assertThatThrownBy(() -> new BulkClassifier(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(new BulkClassifier(1 << 16).classify("Linux", "amd64", "64")).isNotZero();
+        assertThatThrownBy(() -> new BulkClassifier((1 << 16) + 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
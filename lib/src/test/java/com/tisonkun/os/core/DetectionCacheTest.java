@@ -0,0 +1,185 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DetectionCacheTest {
+    @TempDir
+    Path root;
+
+    private final Map<String, String> properties = new HashMap<>();
+
+    private final SystemPropertyOperationProvider sysPropOps = new SystemPropertyOperationProvider() {
+        @Override
+        public String getSystemProperty(String name) {
+            return properties.get(name);
+        }
+
+        @Override
+        public String getSystemProperty(String name, String defaultValue) {
+            return properties.getOrDefault(name, defaultValue);
+        }
+
+        @Override
+        public String setSystemProperty(String name, String value) {
+            return properties.put(name, value);
+        }
+    };
+
+    // Resolves the absolute release file paths against the temporary root.
+    private final FileOperationProvider fileOps = new FileOperationProvider() {
+        @Override
+        public InputStream readFile(String filePath) throws IOException {
+            return Files.newInputStream(root.resolve(filePath.substring(1)));
+        }
+
+        @Override
+        public BasicFileAttributes readAttributes(String filePath) throws IOException {
+            return Files.readAttributes(root.resolve(filePath.substring(1)), BasicFileAttributes.class);
+        }
+    };
+
+    @Test
+    void testServesCachedResult() {
+        properties.put("os.name", "Mac OS X");
+        properties.put("os.arch", "aarch64");
+        properties.put("os.version", "14.4");
+
+        final DetectionCache cache = new DetectionCache(sysPropOps, fileOps, null, 0);
+        final Detected detected = cache.get();
+        assertThat(detected.classifier).isEqualTo("osx-aarch_64");
+        assertThat(cache.get()).isSameAs(detected);
+
+        cache.invalidate();
+        assertThat(cache.get()).isNotSameAs(detected).isEqualTo(detected);
+    }
+
+    @Test
+    void testDetectsAgainWhenPropertiesChange() {
+        properties.put("os.name", "Windows 11");
+        properties.put("os.arch", "amd64");
+        properties.put("os.version", "10.0");
+
+        final DetectionCache cache = new DetectionCache(sysPropOps, fileOps, null, 0);
+        assertThat(cache.get().arch).isEqualTo(Arch.x86_64);
+
+        properties.put("os.arch", "aarch64");
+        assertThat(cache.get().arch).isEqualTo(Arch.aarch_64);
+    }
+
+    @Test
+    void testDetectsAgainWhenReleaseFileChanges() throws IOException {
+        properties.put("os.name", "Linux");
+        properties.put("os.arch", "amd64");
+        properties.put("os.version", "6.5.0");
+        final Path osRelease = root.resolve("etc/os-release");
+        Files.createDirectories(osRelease.getParent());
+        Files.write(osRelease, "ID=ubuntu\nID_LIKE=debian\nVERSION_ID=\"22.04\"\n".getBytes(StandardCharsets.UTF_8));
+
+        final DetectionCache cache = new DetectionCache(sysPropOps, fileOps, null, 0);
+        final Detected detected = cache.get();
+        assertThat(detected.linuxRelease.id).isEqualTo("ubuntu");
+        assertThat(cache.get()).isSameAs(detected);
+
+        Files.write(osRelease, "ID=alpine\nVERSION_ID=3.19.1\n".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(osRelease, FileTime.fromMillis(0));
+        assertThat(cache.get().linuxRelease.id).isEqualTo("alpine");
+    }
+
+    @Test
+    void testRevalidatesAtMostOncePerInterval() {
+        properties.put("os.name", "Linux");
+        properties.put("os.arch", "amd64");
+        properties.put("os.version", "6.5.0");
+
+        final DetectionCache cache = new DetectionCache(sysPropOps, fileOps, null, Long.MAX_VALUE);
+        final Detected detected = cache.get();
+
+        properties.put("os.arch", "aarch64");
+        assertThat(cache.get()).isSameAs(detected);
+    }
+
+    @Test
+    void testSharesResultThroughStore() throws IOException {
+        properties.put("os.name", "Linux");
+        properties.put("os.arch", "aarch64");
+        properties.put("os.version", "6.5.0");
+        final Path osRelease = root.resolve("etc/os-release");
+        Files.createDirectories(osRelease.getParent());
+        Files.write(osRelease, "ID=fedora\nVERSION_ID=39\n".getBytes(StandardCharsets.UTF_8));
+
+        final SharedDetectionStore store = new SharedDetectionStore(root.resolve("store/detected.bin"));
+        final Detected detected = new DetectionCache(sysPropOps, fileOps, store, 0).get();
+        assertThat(store.getFile()).exists();
+
+        // Another cache reads the stored result without touching the release file.
+        final FileOperationProvider statOnly = new FileOperationProvider() {
+            @Override
+            public InputStream readFile(String filePath) throws IOException {
+                throw new AssertionError("unexpected read of " + filePath);
+            }
+
+            @Override
+            public BasicFileAttributes readAttributes(String filePath) throws IOException {
+                return fileOps.readAttributes(filePath);
+            }
+        };
+        assertThat(new DetectionCache(sysPropOps, statOnly, store, 0).get()).isEqualTo(detected);
+
+        // Stale or corrupt stores fall back to live detection.
+        properties.put("os.version", "6.6.0");
+        assertThat(new DetectionCache(sysPropOps, fileOps, store, 0).get().version)
+                .isEqualTo("6.6.0");
+        final byte[] content = Files.readAllBytes(store.getFile());
+        content[content.length - 1] ^= 1;
+        Files.write(store.getFile(), content);
+        assertThat(new DetectionCache(sysPropOps, fileOps, store, 0).get())
+                .isEqualTo(new DetectionCache(sysPropOps, fileOps, null, 0).get());
+    }
+
+    @Test
+    void testIgnoresStoreWritableByOthers() throws IOException {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        properties.put("os.name", "Mac OS X");
+        properties.put("os.arch", "aarch64");
+        final DetectionInputs inputs = DetectionInputs.read(sysPropOps, fileOps);
+        final SharedDetectionStore store = new SharedDetectionStore(root.resolve("store/detected.bin"));
+        store.store(inputs, new DetectionCache(sysPropOps, fileOps, null, 0).get());
+        assertThat(store.load(inputs)).isNotNull();
+
+        Files.setPosixFilePermissions(store.getFile(), PosixFilePermissions.fromString("rw-rw-rw-"));
+        assertThat(store.load(inputs)).isNull();
+        Files.setPosixFilePermissions(store.getFile(), PosixFilePermissions.fromString("rw-------"));
+        Files.setPosixFilePermissions(store.getFile().getParent(), PosixFilePermissions.fromString("rwxrwxrwx"));
+        assertThat(store.load(inputs)).isNull();
+    }
+}
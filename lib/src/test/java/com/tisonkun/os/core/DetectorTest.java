@@ -17,7 +17,20 @@
 package com.tisonkun.os.core;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.tuple;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.junit.jupiter.api.Test;
 
 class DetectorTest {
@@ -45,4 +58,244 @@ class DetectorTest {
         assertThat(detected.classifier).isNotEmpty();
         assertThat(detected.version).isNotEmpty();
     }
+
+    @Test
+    void testNormalize() {
+        assertThat(Detector.normalize(null)).isEmpty();
+        assertThat(Detector.normalize("x86_64")).isEqualTo("x8664");
+        assertThat(Detector.normalize("Mac OS X")).isEqualTo("macosx");
+        assertThat(Detector.normalize("\u212Aernel\u00C9")).isEqualTo("kernel");
+        final String normalized = "aarch64";
+        assertThat(Detector.normalize(normalized)).isSameAs(normalized);
+    }
+
+    @Test
+    void testClassifierIsInterned() {
+        final Detected detected = new Detector(System.out::println).detect();
+        assertThat(detected.classifier).isSameAs((detected.os.name() + '-' + detected.arch.name()).intern());
+    }
+
+    @Test
+    void testParseLinuxOsReleaseFile() {
+        final String content = "NAME=\"Linux Mint\"\r\n"
+                + "VERSION_ID=\"21.3\"\r\n"
+                + "ID=ignored\r\n"
+                + "ID_LIKE=\"ubuntu  debian\"\r\n"
+                + "ID=linuxmint\r\n";
+        final Detector detector = new Detector(
+                new DefaultSystemPropertyOperations(),
+                filePath -> {
+                    if (!filePath.equals("/etc/os-release")) {
+                        throw new NoSuchFileException(filePath);
+                    }
+                    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+                },
+                System.out::println);
+        final LinuxRelease release = detector.getLinuxRelease();
+        assertThat(release.id).isEqualTo("linuxmint");
+        assertThat(release.version).isEqualTo("21.3");
+        assertThat(release.likes).containsExactly("debian", "linuxmint", "ubuntu");
+    }
+
+    @Test
+    void testDetectSelectedFacets() {
+        final Detector detector = new Detector(
+                new DefaultSystemPropertyOperations(),
+                filePath -> {
+                    throw new AssertionError("unexpected read of " + filePath);
+                },
+                System.out::println);
+        final DetectionSpec spec = DetectionSpec.builder()
+                .bitness(false)
+                .version(false)
+                .linuxRelease(false)
+                .build();
+        final Detected detected = detector.detect(spec);
+        assertThat(detected.classifier).isEqualTo(detected.os + "-" + detected.arch);
+        assertThat(detected.bitness).isZero();
+        assertThat(detected.version).isNull();
+        assertThat(detected.linuxRelease).isNull();
+
+        final LazyDetected lazyDetected = detector.detectLazily();
+        assertThat(lazyDetected.classifier).isEqualTo(detected.classifier);
+        assertThat(lazyDetected.version).isNotEmpty();
+    }
+
+    @Test
+    void testDetectAsync() throws Exception {
+        final Detector detector = new Detector(System.out::println);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            assertThat(detector.detectAsync(executor).get()).isEqualTo(detector.detect());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testDetectAsyncEmitsSameEvents() throws Exception {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("os.name", "Linux");
+        properties.put("os.arch", "amd64");
+        properties.put("sun.arch.data.model", "64");
+        final Detector detector = new Detector(
+                new SystemPropertyOperationProvider() {
+                    @Override
+                    public String getSystemProperty(String name) {
+                        return properties.get(name);
+                    }
+
+                    @Override
+                    public String getSystemProperty(String name, String defaultValue) {
+                        return properties.getOrDefault(name, defaultValue);
+                    }
+
+                    @Override
+                    public String setSystemProperty(String name, String value) {
+                        return properties.put(name, value);
+                    }
+                },
+                filePath -> {
+                    if (!filePath.equals("/usr/lib/os-release")) {
+                        throw new NoSuchFileException(filePath);
+                    }
+                    return new ByteArrayInputStream("ID=alpine\n".getBytes(StandardCharsets.UTF_8));
+                },
+                System.out::println);
+        final List<DetectionEvent> syncEvents = new CopyOnWriteArrayList<>();
+        final List<DetectionEvent> asyncEvents = new CopyOnWriteArrayList<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final DetectionListener syncListener = syncEvents::add;
+            Detector.addListener(syncListener);
+            try {
+                detector.detect();
+            } finally {
+                Detector.removeListener(syncListener);
+            }
+            final DetectionListener asyncListener = asyncEvents::add;
+            Detector.addListener(asyncListener);
+            try {
+                detector.detectAsync(executor).get();
+            } finally {
+                Detector.removeListener(asyncListener);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (List<DetectionEvent> events : Arrays.asList(syncEvents, asyncEvents)) {
+            assertThat(events)
+                    .filteredOn(event -> event.phase == DetectionEvent.Phase.RELEASE
+                            || event.phase == DetectionEvent.Phase.DETECTION)
+                    .extracting(event -> event.phase, event -> event.subject, event -> event.result)
+                    .containsExactly(
+                            tuple(DetectionEvent.Phase.RELEASE, "/usr/lib/os-release", "alpine"),
+                            tuple(DetectionEvent.Phase.DETECTION, "linux-x86_64", "alpine"));
+        }
+    }
+
+    @Test
+    void testDetectionListener() {
+        final Detector detector = new Detector(
+                new DefaultSystemPropertyOperations(),
+                filePath -> {
+                    if (!filePath.equals("/usr/lib/os-release")) {
+                        throw new NoSuchFileException(filePath);
+                    }
+                    return new ByteArrayInputStream("ID=alpine\n".getBytes(StandardCharsets.UTF_8));
+                },
+                System.out::println);
+        final List<DetectionEvent> events = new CopyOnWriteArrayList<>();
+        final DetectionListener listener = events::add;
+        final DetectorStats stats = new DetectorStats();
+        Detector.addListener(listener);
+        Detector.addListener(stats);
+        try {
+            detector.getLinuxRelease();
+            detector.detect(DetectionSpec.builder().linuxRelease(false).build());
+        } finally {
+            Detector.removeListener(listener);
+            Detector.removeListener(stats);
+        }
+
+        assertThat(events)
+                .filteredOn(event -> event.phase == DetectionEvent.Phase.FILE_PROBE)
+                .extracting(event -> event.subject, event -> event.result, event -> event.bytes)
+                .containsExactly(tuple("/etc/os-release", null, -1L), tuple("/usr/lib/os-release", "alpine", 10L));
+        assertThat(events)
+                .filteredOn(event -> event.phase == DetectionEvent.Phase.PROPERTY_READ)
+                .extracting(event -> event.subject)
+                .contains("os.name", "os.arch", "os.version", "sun.arch.data.model");
+        assertThat(events)
+                .filteredOn(event -> event.phase == DetectionEvent.Phase.DETECTION)
+                .hasSize(1)
+                .allSatisfy(event -> assertThat(event.durationNanos).isPositive());
+
+        assertThat(stats.getDetectionCount()).isEqualTo(1);
+        assertThat(stats.getFileProbeCount()).isEqualTo(2);
+        assertThat(stats.getLastReleaseSource()).isEqualTo("/usr/lib/os-release");
+        assertThat(stats.getLastBitnessSource()).isEqualTo("sun.arch.data.model");
+        assertThat(stats.getDetectionLatencyHistogram()).hasSize(64).containsOnlyOnce(1L);
+    }
+
+    @Test
+    void testDetectedProperties() {
+        final Detected detected = new Detected(
+                64,
+                "6.8.0-1-generic",
+                "linux-aarch_64",
+                OS.linux,
+                Arch.aarch_64,
+                new LinuxRelease("ubuntu", "24.04", Arrays.asList("debian", "ubuntu")));
+        final DetectedProperties properties = DetectedProperties.of(detected);
+        assertThat(properties.toMap())
+                .containsExactly(
+                        entry(Detector.DETECTED_NAME, "linux"),
+                        entry(Detector.DETECTED_ARCH, "aarch_64"),
+                        entry(Detector.DETECTED_BITNESS, "64"),
+                        entry(Detector.DETECTED_VERSION, "6.8"),
+                        entry(Detector.DETECTED_VERSION_MAJOR, "6"),
+                        entry(Detector.DETECTED_VERSION_MINOR, "8"),
+                        entry(Detector.DETECTED_RELEASE, "ubuntu"),
+                        entry(Detector.DETECTED_RELEASE_VERSION, "24.04"),
+                        entry(Detector.DETECTED_RELEASE_LIKE_PREFIX + "debian", "true"),
+                        entry(Detector.DETECTED_RELEASE_LIKE_PREFIX + "ubuntu", "true"),
+                        entry(Detector.DETECTED_CLASSIFIER, "linux-aarch_64"));
+        assertThat(properties.get(Detector.DETECTED_RELEASE)).isEqualTo("ubuntu");
+        assertThat(properties.containsKey(Detector.DETECTED_RELEASE_LIKE_PREFIX + "rhel"))
+                .isFalse();
+    }
+
+    @Test
+    void testDetectPublishesInBulk() {
+        final List<String> single = new CopyOnWriteArrayList<>();
+        final List<Map<String, String>> bulk = new CopyOnWriteArrayList<>();
+        final SystemPropertyOperationProvider provider = new DefaultSystemPropertyOperations() {
+            @Override
+            public String setSystemProperty(String name, String value) {
+                single.add(name);
+                return null;
+            }
+
+            @Override
+            public void setSystemProperties(Map<String, String> properties) {
+                bulk.add(properties);
+            }
+        };
+        final Properties properties = new Properties();
+        new Detector(provider, new DefaultFileOperations(), message -> {}).detect(properties);
+        assertThat(single).isEmpty();
+        assertThat(bulk).hasSize(1);
+        assertThat(bulk.get(0)).isEqualTo(properties);
+    }
+
+    @Test
+    void testSetSystemPropertiesChecksKeys() {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("", "empty");
+        assertThatThrownBy(() -> new DefaultSystemPropertyOperations().setSystemProperties(properties))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(System.getProperties()).doesNotContainKey("");
+    }
 }
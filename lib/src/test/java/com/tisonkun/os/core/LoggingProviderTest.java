@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import org.junit.jupiter.api.Test;
+
+class LoggingProviderTest {
+    @Test
+    void testLambdaLogsEverything() {
+        final List<String> messages = new ArrayList<>();
+        final LoggingProvider provider = messages::add;
+        assertThat(provider.isEnabled(LoggingProvider.Level.DEBUG)).isTrue();
+        provider.log(LoggingProvider.Level.DEBUG, () -> "debug");
+        assertThat(messages).containsExactly("debug");
+    }
+
+    @Test
+    void testDisabledLevelBuildsNoMessage() {
+        final List<String> messages = new ArrayList<>();
+        final LoggingProvider quiet = new LoggingProvider() {
+            @Override
+            public void info(String message) {
+                messages.add(message);
+            }
+
+            @Override
+            public boolean isEnabled(Level level) {
+                return level != Level.DEBUG;
+            }
+        };
+        quiet.log(LoggingProvider.Level.DEBUG, () -> {
+            throw new AssertionError("built a disabled message");
+        });
+
+        final Properties properties = new Properties();
+        new Detector(quiet.withLevel(LoggingProvider.Level.DEBUG)).detect(properties);
+        assertThat(messages).isEmpty();
+        assertThat(properties).containsKey(Detector.DETECTED_CLASSIFIER);
+
+        new Detector(quiet).detect(new Properties());
+        assertThat(messages).contains("os.detected.classifier: " + properties.get(Detector.DETECTED_CLASSIFIER));
+    }
+
+    @Test
+    void testLeveledProviderDispatchesByLevel() {
+        final List<String> messages = new ArrayList<>();
+        final LoggingProvider provider = new LeveledLoggingProvider() {
+            @Override
+            protected boolean isDebugEnabled() {
+                return false;
+            }
+
+            @Override
+            protected boolean isInfoEnabled() {
+                return true;
+            }
+
+            @Override
+            protected boolean isWarnEnabled() {
+                return true;
+            }
+
+            @Override
+            protected boolean isErrorEnabled() {
+                return true;
+            }
+
+            @Override
+            protected void debug(String message) {
+                messages.add("debug: " + message);
+            }
+
+            @Override
+            public void info(String message) {
+                messages.add("info: " + message);
+            }
+
+            @Override
+            protected void warn(String message) {
+                messages.add("warn: " + message);
+            }
+
+            @Override
+            protected void error(String message) {
+                messages.add("error: " + message);
+            }
+        };
+        for (LoggingProvider.Level level : LoggingProvider.Level.values()) {
+            provider.log(level, () -> level.name());
+        }
+        assertThat(messages).containsExactly("info: INFO", "warn: WARN", "error: ERROR");
+    }
+}
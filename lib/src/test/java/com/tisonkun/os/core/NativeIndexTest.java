@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class NativeIndexTest {
+    @Test
+    void testRoundTrip() throws Exception {
+        final NativeIndex.Entry linux = NativeIndex.entry(
+                "META-INF/native/linux-x86_64/libfoo.so", new ByteArrayInputStream(new byte[] {1, 2, 3}));
+        assertThat(linux.classifier).isEqualTo("linux-x86_64");
+        assertThat(linux.size).isEqualTo(3);
+        assertThat(linux.sha256).isEqualTo("039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81");
+        final NativeIndex.Entry bare =
+                NativeIndex.entry("META-INF/native/libfoo.so", new ByteArrayInputStream(new byte[0]));
+        assertThat(bare.classifier).isEmpty();
+
+        final NativeIndex index = new NativeIndex(Arrays.asList(linux, bare));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.write(out);
+        final NativeIndex read = NativeIndex.read(new ByteArrayInputStream(out.toByteArray()));
+        assertThat(read).isEqualTo(index);
+        assertThat(read.getClassifiers()).containsExactly("linux-x86_64");
+        assertThat(read.get("META-INF/native/linux-x86_64/libfoo.so")).isEqualTo(linux);
+
+        final byte[] truncated = Arrays.copyOf(out.toByteArray(), out.size() - 1);
+        assertThatThrownBy(() -> NativeIndex.read(ByteBuffer.wrap(truncated))).isInstanceOf(IOException.class);
+    }
+}
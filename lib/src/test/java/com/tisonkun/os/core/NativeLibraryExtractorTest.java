@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class NativeLibraryExtractorTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void testExtract() throws Exception {
+        final byte[] content = new byte[300 * 1024];
+        Arrays.fill(content, (byte) 7);
+        final Path source = dir.resolve("libfoo.so");
+        Files.write(source, content);
+        final URL resource = source.toUri().toURL();
+
+        final NativeLibraryExtractor extractor = new NativeLibraryExtractor(dir.resolve("cache"), "linux-x86_64");
+        final Path extracted = extractor.extract(resource);
+        assertThat(extracted).hasBinaryContent(content);
+        assertThat(extracted.getFileName().toString()).isEqualTo("libfoo.so");
+        assertThat(extracted.getParent().getParent())
+                .isEqualTo(dir.resolve("cache").resolve("linux-x86_64"));
+        final String sha256 = extracted.getParent().getFileName().toString();
+        assertThat(sha256).hasSize(64);
+
+        // Reused without rewriting.
+        final long modified = Files.getLastModifiedTime(extracted).toMillis();
+        assertThat(extractor.extract(resource, content.length, sha256)).isEqualTo(extracted);
+        assertThat(Files.getLastModifiedTime(extracted).toMillis()).isEqualTo(modified);
+
+        // A corrupt entry is replaced.
+        Files.write(extracted, "corrupt".getBytes(StandardCharsets.US_ASCII));
+        assertThat(extractor.extract(resource)).hasBinaryContent(content);
+
+        // A mismatching digest is rejected.
+        assertThatThrownBy(() -> extractor.extract(resource, content.length, sha256.replace(sha256.charAt(0), 'x')))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void testExtractJarEntryByCrc() throws Exception {
+        final byte[] content = "native".getBytes(StandardCharsets.US_ASCII);
+        final Path jar = dir.resolve("native.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("META-INF/native/libfoo.so"));
+            out.write(content);
+            out.closeEntry();
+        }
+        final URL resource = new URL("jar:" + jar.toUri() + "!/META-INF/native/libfoo.so");
+
+        final NativeLibraryExtractor extractor = new NativeLibraryExtractor(dir.resolve("cache"), "linux-x86_64");
+        final Path extracted = extractor.extract(resource);
+        assertThat(extracted).hasBinaryContent(content);
+        assertThat(extracted.getParent().getFileName().toString()).startsWith("crc32-");
+
+        // Reused by its size without reading it.
+        Files.write(extracted, "NATIVE".getBytes(StandardCharsets.US_ASCII));
+        assertThat(extractor.extract(resource)).isEqualTo(extracted).hasContent("NATIVE");
+    }
+
+    @Test
+    void testConcurrentExtract() throws Exception {
+        final Path source = dir.resolve("libbar.so");
+        Files.write(source, new byte[64 * 1024]);
+        final URL resource = source.toUri().toURL();
+        final NativeLibraryExtractor extractor = new NativeLibraryExtractor(dir.resolve("cache"), "linux-x86_64");
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Path>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executor.submit(() -> extractor.extract(resource)));
+            }
+            final Path extracted = futures.get(0).get();
+            for (Future<Path> future : futures) {
+                assertThat(future.get()).isEqualTo(extracted);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class NativeLibraryLoaderTest {
+    @TempDir
+    Path classpath;
+
+    @Test
+    void testResolve() throws Exception {
+        write("META-INF/native/linux-x86_64/libfoo.so");
+        write("META-INF/native/libfoo.so");
+        write("META-INF/native/windows-x86_32/foo.dll");
+
+        try (URLClassLoader classLoader =
+                new URLClassLoader(new URL[] {classpath.toUri().toURL()}, null)) {
+            final NativeLibraryLoader linux = new NativeLibraryLoader(
+                    classLoader, new Detected(32, "6.8.0", "linux-x86_32", OS.linux, Arch.x86_32, null));
+            assertThat(linux.candidates("foo"))
+                    .containsExactly(
+                            "META-INF/native/linux-x86_32/libfoo.so",
+                            "META-INF/native/linux-x86_64/libfoo.so",
+                            "META-INF/native/libfoo.so");
+            assertThat(linux.resolve("foo"))
+                    .extracting(URL::getPath)
+                    .allSatisfy(path -> assertThat(path).endsWith("libfoo.so"))
+                    .hasSize(2);
+            assertThat(linux.resolve("foo").get(0).getPath()).endsWith("linux-x86_64/libfoo.so");
+            assertThat(linux.resolve("foo")).isSameAs(linux.resolve("foo"));
+
+            final NativeLibraryLoader windows = new NativeLibraryLoader(
+                    classLoader, new Detected(32, "10.0", "windows-x86_32", OS.windows, Arch.x86_32, null));
+            assertThat(windows.resolve("foo")).hasSize(1);
+            assertThat(windows.resolve("bar")).isEmpty();
+            assertThatThrownBy(() -> windows.load("bar")).isInstanceOf(UnsatisfiedLinkError.class);
+        }
+    }
+
+    @Test
+    void testResolveWithoutClassifierFacet() throws Exception {
+        write("META-INF/native/linux-aarch_64/libfoo.so");
+
+        try (URLClassLoader classLoader =
+                new URLClassLoader(new URL[] {classpath.toUri().toURL()}, null)) {
+            final NativeLibraryLoader loader =
+                    new NativeLibraryLoader(classLoader, new Detected(64, null, null, OS.linux, Arch.aarch_64, null));
+            assertThat(loader.candidates("foo"))
+                    .containsExactly("META-INF/native/linux-aarch_64/libfoo.so", "META-INF/native/libfoo.so");
+            assertThat(loader.resolve("foo")).hasSize(1);
+        }
+    }
+
+    private void write(String resource) throws Exception {
+        final Path path = classpath.resolve(resource);
+        Files.createDirectories(path.getParent());
+        Files.write(path, new byte[] {0});
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class OsReleaseParserTest {
+    private static OsRelease parse(String content) {
+        return OsReleaseParser.parse(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testQuoting() {
+        final OsRelease osRelease = parse("PLAIN=debian\n"
+                + "DOUBLE=\"Debian GNU/Linux\"\n"
+                + "SINGLE='it''s \"quoted\"'\n"
+                + "ESCAPED=\"a \\\"b\\\" \\$HOME \\\\ \\n\"\n"
+                + "UNQUOTED=foo\\ bar\n"
+                + "CONCAT=\"foo\"'bar'baz\n"
+                + "EMPTY=\n"
+                + "EMPTY_QUOTED=\"\"\n"
+                + "UNICODE=\"Fedora Linux 39 (Workstation \u00C9dition)\"\n");
+        assertThat(osRelease.toMap())
+                .containsExactly(
+                        entry("PLAIN", "debian"),
+                        entry("DOUBLE", "Debian GNU/Linux"),
+                        entry("SINGLE", "its \"quoted\""),
+                        entry("ESCAPED", "a \"b\" $HOME \\ \\n"),
+                        entry("UNQUOTED", "foo bar"),
+                        entry("CONCAT", "foobarbaz"),
+                        entry("EMPTY", ""),
+                        entry("EMPTY_QUOTED", ""),
+                        entry("UNICODE", "Fedora Linux 39 (Workstation \u00C9dition)"));
+    }
+
+    @Test
+    void testCommentsAndInvalidLines() {
+        final OsRelease osRelease = parse("# a comment\r\n"
+                + "\r\n"
+                + "  ID=ubuntu  # trailing comment\r\n"
+                + "not an assignment\r\n"
+                + "1ID=invalid\r\n"
+                + "MULTI=\"first\\\n"
+                + "second\"\r\n"
+                + "VERSION_ID=\"22.04\"\r\n");
+        assertThat(osRelease.size()).isEqualTo(3);
+        assertThat(osRelease.get("ID")).isEqualTo("ubuntu");
+        assertThat(osRelease.get("MULTI")).isEqualTo("firstsecond");
+        assertThat(osRelease.get("VERSION_ID")).isEqualTo("22.04");
+        assertThat(osRelease.containsKey("1ID")).isFalse();
+        assertThat(osRelease.get("NAME")).isNull();
+    }
+
+    @Test
+    void testLastAssignmentWins() {
+        final OsRelease osRelease = parse("ID=first\nID=second\n");
+        assertThat(osRelease.size()).isEqualTo(2);
+        assertThat(osRelease.key(0)).isEqualTo("ID");
+        assertThat(osRelease.value(0)).isEqualTo("first");
+        assertThat(osRelease.get("ID")).isEqualTo("second");
+    }
+
+    @Test
+    void testParsesGivenKeysOnly() {
+        final ByteBuffer content = ByteBuffer.wrap(
+                "ID=alpine\nNAME=Alpine\nVERSION_ID=3.19.1\nHOME_URL=x\n".getBytes(StandardCharsets.UTF_8));
+        content.position(3);
+        final OsRelease osRelease = OsReleaseParser.parse(content, "ID", "VERSION_ID", "NAME");
+        assertThat(osRelease.size()).isEqualTo(2);
+        assertThat(osRelease.get("NAME")).isEqualTo("Alpine");
+        assertThat(osRelease.containsKey("ID")).isFalse();
+        assertThat(osRelease.containsKey("HOME_URL")).isFalse();
+        assertThat(content.position()).isEqualTo(3);
+    }
+
+    @Test
+    void testLastAssignmentWinsWithKeys() {
+        // Whether the duplicate comes before or after all the keys are assigned, the last one wins.
+        for (String content :
+                new String[] {"ID=a\nID=b\nVERSION_ID=1\nID_LIKE=c\n", "ID=a\nVERSION_ID=1\nID_LIKE=c\nID=b\n"}) {
+            final OsRelease osRelease = OsReleaseParser.parse(
+                    ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)), "ID", "ID_LIKE", "VERSION_ID");
+            assertThat(osRelease.get("ID")).isEqualTo("b");
+            assertThat(parse(content).get("ID")).isEqualTo("b");
+        }
+    }
+
+    @Test
+    void testLinuxRelease() {
+        final LinuxRelease release =
+                LinuxRelease.from(parse("ID='rocky'\nID_LIKE=\"rhel centos  fedora\"\nVERSION_ID=\"9.3\"\n"));
+        assertThat(release.id).isEqualTo("rocky");
+        assertThat(release.version).isEqualTo("9.3");
+        assertThat(release.likes).containsExactly("centos", "fedora", "rhel", "rocky");
+        assertThat(LinuxRelease.from(parse("NAME=unknown\n"))).isNull();
+    }
+}
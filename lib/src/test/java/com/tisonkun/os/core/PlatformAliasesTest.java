@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class PlatformAliasesTest {
+    @ParameterizedTest
+    @CsvSource({
+        "AIX, aix",
+        "HP-UX, hpux",
+        "OS/400, os400",
+        "OS/4000, unknown",
+        "Linux, linux",
+        "Mac OS X, osx",
+        "OSX, osx",
+        "FreeBSD, freebsd",
+        "OpenBSD, openbsd",
+        "NetBSD, netbsd",
+        "Solaris, sunos",
+        "SunOS, sunos",
+        "Windows Server 2022, windows",
+        "z/OS, zos",
+        "Plan 9, unknown",
+        "'', unknown",
+    })
+    void testResolveOs(String osName, OS expected) {
+        assertThat(PlatformAliases.resolveOs(osName)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "amd64, x86_64",
+        "x86_64, x86_64",
+        "EM64T, x86_64",
+        "i386, x86_32",
+        "i686, x86_32",
+        "i786, unknown",
+        "ia64w, itanium_64",
+        "ia64n, itanium_32",
+        "sparcv9, sparc_64",
+        "arm, arm_32",
+        "aarch64, aarch_64",
+        "mips32el, mipsel_32",
+        "mips64el, mipsel_64",
+        "ppc64le, ppcle_64",
+        "s390x, s390_64",
+        "riscv32, riscv",
+        "riscv64, riscv64",
+        "e2k, e2k",
+        "loongarch64, loongarch_64",
+        "amd64x, unknown",
+        "'', unknown",
+    })
+    void testResolveArch(String osArch, Arch expected) {
+        assertThat(PlatformAliases.resolveArch(osArch)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"armv7l, arm_32", "ARMv7-HF, arm_32"})
+    void testRegisterArch(String osArch, Arch expected) {
+        assertThat(PlatformAliases.resolveArch(osArch)).isEqualTo(Arch.unknown);
+        PlatformAliases.registerArch(osArch, expected);
+        assertThat(PlatformAliases.resolveArch(osArch)).isEqualTo(expected);
+    }
+
+    @Test
+    void testRegisterOsKeepsLongerBuiltInPrefix() {
+        PlatformAliases.registerOs("Win", OS.windows);
+        PlatformAliases.registerOs("Windo", OS.zos);
+        assertThat(PlatformAliases.resolveOs("Win32s")).isEqualTo(OS.windows);
+        assertThat(PlatformAliases.resolveOs("Windows 11")).isEqualTo(OS.windows);
+        assertThat(PlatformAliases.resolveOs("Windo 1")).isEqualTo(OS.zos);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.nio.ByteOrder;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+class PlatformKeyTest {
+    @Test
+    void testRoundTrip() {
+        final LinuxRelease release = new LinuxRelease("ubuntu", "22.04", Collections.singletonList("debian"));
+        final Detected detected = new Detected(64, "6.8.0", "linux-x86_64", OS.linux, Arch.x86_64, release);
+        final long key = detected.toKey();
+        assertThat(PlatformKey.os(key)).isEqualTo(OS.linux);
+        assertThat(PlatformKey.arch(key)).isEqualTo(Arch.x86_64);
+        assertThat(PlatformKey.bitness(key)).isEqualTo(64);
+        assertThat(PlatformKey.byteOrder(key)).isEqualTo(ByteOrder.LITTLE_ENDIAN);
+        assertThat(PlatformKey.releaseId(key)).isEqualTo("ubuntu");
+        assertThat(PlatformKey.releaseVersion(key)).isEqualTo("22.04");
+        assertThat(PlatformKey.classifier(key)).isSameAs(detected.classifier);
+        assertThat(PlatformKey.of(OS.linux, Arch.x86_64, 64, "ubuntu", "22.04")).isEqualTo(key);
+    }
+
+    @Test
+    void testWithoutRelease() {
+        final long key = PlatformKey.of(OS.aix, Arch.ppc_64, 64, null, null);
+        assertThat(PlatformKey.releaseId(key)).isNull();
+        assertThat(PlatformKey.byteOrder(key)).isEqualTo(ByteOrder.BIG_ENDIAN);
+        assertThat(PlatformKey.withoutRelease(PlatformKey.of(OS.aix, Arch.ppc_64, 64, "x", "1")))
+                .isEqualTo(key);
+    }
+
+    @Test
+    void testNameTableOverflow() {
+        final PlatformKey.NameTable table = new PlatformKey.NameTable(2);
+        assertThat(table.intern("ubuntu")).isEqualTo(1);
+        assertThat(table.intern("fedora")).isEqualTo(2);
+        assertThat(table.intern("alpine")).isNegative();
+        assertThat(table.intern("ubuntu")).isEqualTo(1);
+        assertThat(table.name(2)).isEqualTo("fedora");
+    }
+
+    @Test
+    void testReleaseIdsAndVersionsAreInternedSeparately() {
+        final long key = PlatformKey.of(OS.linux, Arch.x86_64, 64, "24.04", "ubuntu");
+        assertThat(PlatformKey.releaseId(key)).isEqualTo("24.04");
+        assertThat(PlatformKey.releaseVersion(key)).isEqualTo("ubuntu");
+        assertThat(PlatformKey.tryOf(OS.linux, Arch.x86_64, 64, "24.04", "ubuntu"))
+                .hasValue(key);
+    }
+
+    @Test
+    void testWideBitness() {
+        final long key = PlatformKey.of(OS.linux, Arch.riscv64, 1024, "debian", null);
+        assertThat(PlatformKey.bitness(key)).isEqualTo(1024);
+        assertThat(PlatformKey.arch(key)).isEqualTo(Arch.riscv64);
+        assertThat(PlatformKey.byteOrder(key)).isEqualTo(ByteOrder.LITTLE_ENDIAN);
+        assertThat(PlatformKey.releaseId(key)).isEqualTo("debian");
+        assertThat(PlatformKey.bitness(PlatformKey.of(OS.linux, Arch.riscv64, 16383, null, null)))
+                .isEqualTo(16383);
+        assertThat(PlatformKey.bitness(PlatformKey.of(OS.linux, Arch.riscv64, 65536, null, null)))
+                .isEqualTo(64);
+        final Detected detected = new Detected(256, "6.8.0", "linux-x86_64", OS.linux, Arch.x86_64, null);
+        assertThat(PlatformKey.bitness(detected.toKey())).isEqualTo(256);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+class PlatformMapTest {
+    @Test
+    void testFallbacks() {
+        final PlatformMap<String> map = new PlatformMap<>();
+        assertThat(map.get(OS.linux, Arch.x86_64)).isNull();
+
+        map.put(OS.unknown, Arch.unknown, "any");
+        map.put(OS.unknown, Arch.aarch_64, "any-aarch_64");
+        map.put(OS.linux, Arch.unknown, "linux-any");
+        map.put(OS.linux, Arch.x86_64, "linux-x86_64");
+        assertThat(map.size()).isEqualTo(4);
+
+        assertThat(map.get(OS.linux, Arch.x86_64)).isEqualTo("linux-x86_64");
+        assertThat(map.get(OS.linux, Arch.aarch_64)).isEqualTo("linux-any");
+        assertThat(map.get(OS.osx, Arch.aarch_64)).isEqualTo("any-aarch_64");
+        assertThat(map.get(OS.osx, Arch.x86_64)).isEqualTo("any");
+        assertThat(map.getExact(OS.osx, Arch.x86_64)).isNull();
+        assertThat(map.get(PlatformKey.of(OS.linux, Arch.x86_64, 64, "ubuntu", null)))
+                .isEqualTo("linux-x86_64");
+
+        assertThat(map.remove(OS.linux, Arch.unknown)).isEqualTo("linux-any");
+        assertThat(map.get(OS.linux, Arch.aarch_64)).isEqualTo("any-aarch_64");
+        assertThat(map.size()).isEqualTo(3);
+    }
+
+    @Test
+    void testPrimitiveMaps() {
+        final PlatformIntMap ints = new PlatformIntMap();
+        assertThat(ints.put(OS.windows, Arch.x86_64, 42)).isFalse();
+        assertThat(ints.put(OS.windows, Arch.x86_64, 43)).isTrue();
+        assertThat(ints.get(OS.windows, Arch.x86_64, -1)).isEqualTo(43);
+        assertThat(ints.get(OS.windows, Arch.x86_32, -1)).isEqualTo(-1);
+        assertThat(ints.containsKey(OS.windows, Arch.x86_32)).isFalse();
+
+        final PlatformLongMap longs = new PlatformLongMap();
+        longs.put(OS.unknown, Arch.unknown, 7L);
+        assertThat(longs.get(OS.zos, Arch.s390_64, -1L)).isEqualTo(7L);
+        assertThat(longs.remove(OS.unknown, Arch.unknown)).isTrue();
+        assertThat(longs.get(OS.zos, Arch.s390_64, -1L)).isEqualTo(-1L);
+    }
+}
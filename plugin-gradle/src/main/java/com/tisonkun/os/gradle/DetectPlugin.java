@@ -18,11 +18,31 @@ package com.tisonkun.os.gradle;
 
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
+import org.gradle.api.tasks.SourceSet;
+import org.gradle.api.tasks.SourceSetContainer;
+import org.gradle.api.tasks.TaskProvider;
+import org.gradle.language.jvm.tasks.ProcessResources;
 
 @SuppressWarnings("unused")
 public class DetectPlugin implements Plugin<Project> {
     @Override
     public void apply(Project project) {
         project.getExtensions().create("osdetector", OSDetector.class, project);
+        project.getPluginManager().withPlugin("java", plugin -> registerNativeIndex(project));
+    }
+
+    private static void registerNativeIndex(Project project) {
+        final SourceSet main =
+                project.getExtensions().getByType(SourceSetContainer.class).getByName(SourceSet.MAIN_SOURCE_SET_NAME);
+        final TaskProvider<NativeIndexTask> nativeIndex = project.getTasks()
+                .register("nativeIndex", NativeIndexTask.class, task -> {
+                    task.setDescription("Generates the index of the native libraries under META-INF/native.");
+                    task.getResourceDirs().from(main.getResources().getSourceDirectories());
+                    task.getOutputDirectory()
+                            .set(project.getLayout().getBuildDirectory().dir("generated/native-index"));
+                });
+        project.getTasks()
+                .named(main.getProcessResourcesTaskName(), ProcessResources.class)
+                .configure(task -> task.from(nativeIndex));
     }
 }
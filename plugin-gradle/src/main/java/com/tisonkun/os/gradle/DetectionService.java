@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.gradle;
+
+import java.util.Map;
+import java.util.function.Supplier;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+/**
+ * Holds the detection result shared by every project of a build, so that the detection runs once per build
+ * rather than once per project.
+ */
+public abstract class DetectionService implements BuildService<BuildServiceParameters.None> {
+    private Map<String, String> detectedProperties;
+
+    /**
+     * Returns the shared result, running the given detection if this is the first request of the build.
+     */
+    synchronized Map<String, String> getDetectedProperties(Supplier<Map<String, String>> detection) {
+        if (detectedProperties == null) {
+            detectedProperties = detection.get();
+        }
+        return detectedProperties;
+    }
+}
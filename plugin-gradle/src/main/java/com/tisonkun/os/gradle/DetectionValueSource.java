@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.gradle;
+
+import com.tisonkun.os.core.DefaultFileOperations;
+import com.tisonkun.os.core.DefaultSystemPropertyOperations;
+import com.tisonkun.os.core.DetectionCache;
+import com.tisonkun.os.core.Detector;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.gradle.api.provider.ValueSource;
+import org.gradle.api.provider.ValueSourceParameters;
+
+/**
+ * Runs the detection as a single configuration cache input.
+ *
+ * <p>Gradle fingerprints the obtained properties rather than every system property and release file read
+ * while detecting, and obtains them again on every configuration cache hit to check that they are still the
+ * same. The detection goes through {@link DetectionCache#getDefault()}, so that a daemon obtains them again
+ * from memory. To also skip the detection in a fresh daemon, set the system property
+ * {@code os.detection.sharedCache} as for any other JVM, e.g., {@code systemProp.os.detection.sharedCache=true}
+ * in {@code gradle.properties}.
+ */
+@Slf4j
+public abstract class DetectionValueSource implements ValueSource<Map<String, String>, ValueSourceParameters.None> {
+    @Override
+    public Map<String, String> obtain() {
+        final Detector detector = new Detector(
+                new DefaultSystemPropertyOperations(),
+                new DefaultFileOperations(),
+                new Slf4jLoggingProvider(log),
+                DetectionCache.getDefault());
+        return detector.detectProperties().toMap();
+    }
+}
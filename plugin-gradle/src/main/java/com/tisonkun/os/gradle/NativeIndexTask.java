@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.gradle;
+
+import com.tisonkun.os.core.NativeIndex;
+import com.tisonkun.os.core.NativeLibraryLoader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileTree;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.SkipWhenEmpty;
+import org.gradle.api.tasks.TaskAction;
+
+/**
+ * Writes a {@link NativeIndex} of the native libraries under {@code META-INF/native/} of the resource
+ * directories, so that they can be resolved at runtime without scanning jar entries.
+ */
+@CacheableTask
+public abstract class NativeIndexTask extends DefaultTask {
+    /**
+     * The resource directories to scan.
+     */
+    @Internal
+    public abstract ConfigurableFileCollection getResourceDirs();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getOutputDirectory();
+
+    @InputFiles
+    @SkipWhenEmpty
+    @IgnoreEmptyDirectories
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public FileTree getNativeResources() {
+        return getResourceDirs()
+                .getAsFileTree()
+                .matching(pattern -> pattern.include(NativeLibraryLoader.NATIVE_RESOURCE_PREFIX + "**"));
+    }
+
+    @TaskAction
+    public void generate() throws IOException {
+        final List<NativeIndex.Entry> entries = new ArrayList<>();
+        getNativeResources().visit(details -> {
+            if (details.isDirectory()) {
+                return;
+            }
+            try (InputStream in = details.open()) {
+                entries.add(NativeIndex.entry(details.getRelativePath().getPathString(), in));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        // Keep the output stable across file system orders so that the task output is reproducible.
+        entries.sort(Comparator.comparing(entry -> entry.path));
+
+        final File output =
+                getOutputDirectory().file(NativeIndex.RESOURCE).get().getAsFile();
+        Files.createDirectories(output.getParentFile().toPath());
+        try (OutputStream out = Files.newOutputStream(output.toPath())) {
+            new NativeIndex(entries).write(out);
+        }
+    }
+}
@@ -19,18 +19,17 @@ package com.tisonkun.os.gradle;
 import com.tisonkun.os.core.DefaultFileOperations;
 import com.tisonkun.os.core.DefaultSystemPropertyOperations;
 import com.tisonkun.os.core.Detector;
-import com.tisonkun.os.core.FileOperationProvider;
-import com.tisonkun.os.core.SystemPropertyOperationProvider;
-import java.io.ByteArrayInputStream;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.Properties;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import javax.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
+import org.gradle.api.GradleException;
 import org.gradle.api.Project;
 import org.gradle.api.file.ProjectLayout;
-import org.gradle.api.file.RegularFile;
+import org.gradle.api.model.ObjectFactory;
 import org.gradle.api.provider.Provider;
 import org.gradle.api.provider.ProviderFactory;
 import org.gradle.util.GradleVersion;
@@ -38,15 +37,20 @@ import org.gradle.util.GradleVersion;
 @SuppressWarnings("unused")
 @Slf4j
 public abstract class OSDetector {
+    // Unique to each class loader that loads this plugin, so that builds loading it more than once never
+    // look up a DetectionService registered by another copy of the class.
+    private static final String DETECTION_SERVICE_NAME = "osdetector-" + UUID.randomUUID();
+
     @Inject
     public abstract ProviderFactory getProviderFactory();
 
     @Inject
     public abstract ProjectLayout getProjectLayout();
 
-    @SuppressWarnings("FieldCanBeLocal")
     private final Project project;
 
+    private final Set<String> platformConfigurations = new HashSet<>();
+
     private Impl impl;
 
     public OSDetector(Project project) {
@@ -54,15 +58,15 @@ public abstract class OSDetector {
     }
 
     public String getOs() {
-        return (String) getImpl().detectedProperties.get(Detector.DETECTED_NAME);
+        return getImpl().detectedProperties.get(Detector.DETECTED_NAME);
     }
 
     public String getArch() {
-        return (String) getImpl().detectedProperties.get(Detector.DETECTED_ARCH);
+        return getImpl().detectedProperties.get(Detector.DETECTED_ARCH);
     }
 
     public String getClassifier() {
-        return (String) getImpl().detectedProperties.get(Detector.DETECTED_CLASSIFIER);
+        return getImpl().detectedProperties.get(Detector.DETECTED_CLASSIFIER);
     }
 
     public Release getRelease() {
@@ -74,18 +78,117 @@ public abstract class OSDetector {
         return new Release(impl);
     }
 
+    /**
+     * Returns the normalized OS name lazily; the detection runs when the provider is first queried.
+     */
+    public Provider<String> getOsProvider() {
+        return getDetectedProperty(Detector.DETECTED_NAME);
+    }
+
+    /**
+     * Returns the architecture lazily; the detection runs when the provider is first queried.
+     */
+    public Provider<String> getArchProvider() {
+        return getDetectedProperty(Detector.DETECTED_ARCH);
+    }
+
+    /**
+     * Returns the classifier lazily; the detection runs when the provider is first queried.
+     */
+    public Provider<String> getClassifierProvider() {
+        return getDetectedProperty(Detector.DETECTED_CLASSIFIER);
+    }
+
+    /**
+     * Returns the Linux release lazily; the provider has no value on non-linux systems.
+     */
+    public Provider<Release> getReleaseProvider() {
+        if (GradleVersion.current().compareTo(GradleVersion.version("6.1")) < 0) {
+            return getProviderFactory().provider(this::getRelease);
+        }
+        return getDetectedProperties()
+                .map(detectedProperties -> detectedProperties.containsKey(Detector.DETECTED_RELEASE)
+                        ? new Release(new Impl(detectedProperties))
+                        : null);
+    }
+
+    private Provider<String> getDetectedProperty(String name) {
+        if (GradleVersion.current().compareTo(GradleVersion.version("6.1")) < 0) {
+            return getProviderFactory()
+                    .provider(() -> getImpl().detectedProperties.get(name));
+        }
+        return getDetectedProperties().map(detectedProperties -> detectedProperties.get(name));
+    }
+
+    /**
+     * Returns the detected properties as a configuration cache input. Unlike a provider that calls back into
+     * this extension, it captures neither the extension nor the project, and is obtained again on reuse.
+     */
+    private Provider<Map<String, String>> getDetectedProperties() {
+        return getProviderFactory().of(DetectionValueSource.class, spec -> {});
+    }
+
+    /**
+     * Requests the detected OS and architecture as {@code OperatingSystemFamily} and {@code MachineArchitecture}
+     * variant attributes on the named configurations when they are resolved, unless the configurations set
+     * them already. See {@link PlatformAttributes} for how the values are matched. Requires Gradle 6.0+.
+     */
+    public synchronized void requestPlatformAttributes(String... configurationNames) {
+        if (GradleVersion.current().compareTo(GradleVersion.version("6.0")) < 0) {
+            throw new GradleException("Requesting platform attributes requires Gradle 6.0 or later");
+        }
+        if (platformConfigurations.isEmpty()) {
+            final Release release = getRelease();
+            PlatformAttributes.configureSchema(
+                    project.getDependencies().getAttributesSchema(), release == null ? null : release.getId());
+            final ObjectFactory objects = project.getObjects();
+            // The attributes are added right before resolving, when the configuration is known to be resolvable.
+            project.getConfigurations()
+                    .configureEach(configuration -> configuration.getIncoming().beforeResolve(dependencies -> {
+                        if (isPlatformConfiguration(configuration.getName())) {
+                            PlatformAttributes.request(configuration.getAttributes(), this, objects);
+                        }
+                    }));
+        }
+        Collections.addAll(platformConfigurations, configurationNames);
+    }
+
+    private synchronized boolean isPlatformConfiguration(String name) {
+        return platformConfigurations.contains(name);
+    }
+
     private synchronized Impl getImpl() {
         if (impl == null) {
-            if (GradleVersion.current().compareTo(GradleVersion.version("6.5")) >= 0) {
-                impl = new Impl(
-                        new ConfigurationTimeSafeSystemPropertyOperations(), new ConfigurationTimeSafeFileOperations());
+            if (GradleVersion.current().compareTo(GradleVersion.version("6.1")) >= 0) {
+                // Share one detection among all projects of the build.
+                impl = new Impl(getDetectionService().get().getDetectedProperties(this::detect));
             } else {
-                impl = new Impl(new DefaultSystemPropertyOperations(), new DefaultFileOperations());
+                impl = new Impl(detect());
             }
         }
         return impl;
     }
 
+    private Provider<DetectionService> getDetectionService() {
+        return project.getGradle()
+                .getSharedServices()
+                .registerIfAbsent(DETECTION_SERVICE_NAME, DetectionService.class, spec -> {});
+    }
+
+    private Map<String, String> detect() {
+        final Map<String, String> detectedProperties;
+        if (GradleVersion.current().compareTo(GradleVersion.version("6.1")) >= 0) {
+            detectedProperties =
+                    forUseAtConfigurationTime(getDetectedProperties()).get();
+        } else {
+            final Detector detector = new Detector(
+                    new DefaultSystemPropertyOperations(), new DefaultFileOperations(), new Slf4jLoggingProvider(log));
+            detectedProperties = detector.detectProperties().toMap();
+        }
+        Detector.logDetectedProperties(new Slf4jLoggingProvider(log), detectedProperties);
+        return detectedProperties;
+    }
+
     /**
      * Accessor to information about the current OS release.
      */
@@ -100,14 +203,14 @@ public abstract class OSDetector {
          * Returns the release ID.
          */
         public String getId() {
-            return (String) impl.detectedProperties.get(Detector.DETECTED_RELEASE);
+            return impl.detectedProperties.get(Detector.DETECTED_RELEASE);
         }
 
         /**
          * Returns the version ID.
          */
         public String getVersion() {
-            return (String) impl.detectedProperties.get(Detector.DETECTED_RELEASE_VERSION);
+            return impl.detectedProperties.get(Detector.DETECTED_RELEASE_VERSION);
         }
 
         /**
@@ -120,61 +223,22 @@ public abstract class OSDetector {
     }
 
     private static class Impl {
-        private final Properties detectedProperties = new Properties();
+        private final Map<String, String> detectedProperties;
 
-        private Impl(SystemPropertyOperationProvider sysPropOps, FileOperationProvider fsOps) {
-            final Detector detector = new Detector(sysPropOps, fsOps, log::info);
-            detector.detect(detectedProperties);
+        private Impl(Map<String, String> detectedProperties) {
+            this.detectedProperties = detectedProperties;
         }
     }
 
     @SuppressWarnings("deprecation")
     private static <T> Provider<T> forUseAtConfigurationTime(Provider<T> provider) {
-        // Deprecated and a noop starting in 7.4
-        if (GradleVersion.current().compareTo(GradleVersion.version("7.4")) < 0) {
+        // Introduced in 6.5; deprecated and a noop starting in 7.4
+        final GradleVersion current = GradleVersion.current();
+        if (current.compareTo(GradleVersion.version("6.5")) >= 0
+                && current.compareTo(GradleVersion.version("7.4")) < 0) {
             return provider.forUseAtConfigurationTime();
         } else {
             return provider;
         }
     }
-
-    /**
-     * Provides system property operations compatible with Gradle configuration cache.
-     */
-    private final class ConfigurationTimeSafeSystemPropertyOperations implements SystemPropertyOperationProvider {
-        @Override
-        public String getSystemProperty(String name) {
-            return forUseAtConfigurationTime(getProviderFactory().systemProperty(name))
-                    .getOrNull();
-        }
-
-        @Override
-        public String getSystemProperty(String name, String def) {
-            return forUseAtConfigurationTime(getProviderFactory().systemProperty(name))
-                    .getOrElse(def);
-        }
-
-        @Override
-        public String setSystemProperty(String name, String value) {
-            // no-op
-            return null;
-        }
-    }
-
-    /**
-     * Provides filesystem operations compatible with Gradle configuration cache.
-     */
-    private final class ConfigurationTimeSafeFileOperations implements FileOperationProvider {
-        @Override
-        public InputStream readFile(String fileName) throws IOException {
-            RegularFile file = getProjectLayout().getProjectDirectory().file(fileName);
-            byte[] bytes = forUseAtConfigurationTime(
-                            getProviderFactory().fileContents(file).getAsBytes())
-                    .getOrNull();
-            if (bytes == null) {
-                throw new FileNotFoundException(fileName + " not exist");
-            }
-            return new ByteArrayInputStream(bytes);
-        }
-    }
 }
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.gradle;
+
+import com.tisonkun.os.core.Arch;
+import com.tisonkun.os.core.OS;
+import com.tisonkun.os.core.PlatformAliases;
+import javax.inject.Inject;
+import org.gradle.api.Named;
+import org.gradle.api.attributes.Attribute;
+import org.gradle.api.attributes.AttributeCompatibilityRule;
+import org.gradle.api.attributes.AttributeContainer;
+import org.gradle.api.attributes.AttributeDisambiguationRule;
+import org.gradle.api.attributes.AttributesSchema;
+import org.gradle.api.attributes.CompatibilityCheckDetails;
+import org.gradle.api.attributes.MultipleCandidatesDetails;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.nativeplatform.MachineArchitecture;
+import org.gradle.nativeplatform.OperatingSystemFamily;
+
+/**
+ * Describes the detected platform with Gradle variant attributes, so that variant-aware resolution selects
+ * the host's native variant instead of every classifier.
+ *
+ * <p>The configurations named with {@link OSDetector#requestPlatformAttributes(String...)} request the
+ * detected OS and architecture as {@link OperatingSystemFamily} and {@link MachineArchitecture} values.
+ * Producer values are matched by their normalized platform, so that variants published with classifier
+ * names such as {@code osx} or {@code x86_64} are compatible with {@code macos} or {@code x86-64}. The
+ * Linux release ID is not requested; if producers declare variants by {@link #RELEASE_ATTRIBUTE}, the one
+ * of the detected release is preferred among them.
+ */
+public final class PlatformAttributes {
+    /**
+     * The Linux release ID, e.g., {@code ubuntu}.
+     */
+    public static final Attribute<String> RELEASE_ATTRIBUTE = Attribute.of("com.tisonkun.os.release", String.class);
+
+    private PlatformAttributes() {}
+
+    /**
+     * Registers the compatibility and disambiguation rules for the platform attributes.
+     */
+    static void configureSchema(AttributesSchema schema, String releaseId) {
+        schema.attribute(OperatingSystemFamily.OPERATING_SYSTEM_ATTRIBUTE, strategy -> {
+            strategy.getCompatibilityRules().add(OsCompatibilityRule.class);
+            strategy.getDisambiguationRules().add(OsDisambiguationRule.class);
+        });
+        schema.attribute(MachineArchitecture.ARCHITECTURE_ATTRIBUTE, strategy -> {
+            strategy.getCompatibilityRules().add(ArchCompatibilityRule.class);
+            strategy.getDisambiguationRules().add(ArchDisambiguationRule.class);
+        });
+        if (releaseId != null) {
+            schema.attribute(RELEASE_ATTRIBUTE, strategy -> strategy.getDisambiguationRules()
+                    .add(ReleaseDisambiguationRule.class, rule -> rule.params(releaseId)));
+        }
+    }
+
+    /**
+     * Requests the detected OS and architecture, keeping the values already present in the container.
+     */
+    static void request(AttributeContainer attributes, OSDetector detector, ObjectFactory objects) {
+        final OS os = PlatformAliases.resolveOs(detector.getOs());
+        if (!os.isUnknown() && !attributes.contains(OperatingSystemFamily.OPERATING_SYSTEM_ATTRIBUTE)) {
+            attributes.attribute(
+                    OperatingSystemFamily.OPERATING_SYSTEM_ATTRIBUTE,
+                    objects.named(OperatingSystemFamily.class, osFamily(os)));
+        }
+        final Arch arch = PlatformAliases.resolveArch(detector.getArch());
+        if (!arch.isUnknown() && !attributes.contains(MachineArchitecture.ARCHITECTURE_ATTRIBUTE)) {
+            attributes.attribute(
+                    MachineArchitecture.ARCHITECTURE_ATTRIBUTE,
+                    objects.named(MachineArchitecture.class, architecture(arch)));
+        }
+    }
+
+    /**
+     * Returns the {@link OperatingSystemFamily} name for the given OS, e.g., {@code macos} for {@code osx}.
+     */
+    public static String osFamily(OS os) {
+        switch (os) {
+            case linux:
+                return OperatingSystemFamily.LINUX;
+            case osx:
+                return OperatingSystemFamily.MACOS;
+            case windows:
+                return OperatingSystemFamily.WINDOWS;
+            default:
+                return os.name();
+        }
+    }
+
+    /**
+     * Returns the {@link MachineArchitecture} name for the given architecture, e.g., {@code x86-64} for
+     * {@code x86_64}.
+     */
+    public static String architecture(Arch arch) {
+        switch (arch) {
+            case x86_32:
+                return MachineArchitecture.X86;
+            case x86_64:
+                return MachineArchitecture.X86_64;
+            case aarch_64:
+                return MachineArchitecture.ARM64;
+            default:
+                return arch.name();
+        }
+    }
+
+    private static boolean sameOs(Named consumer, Named producer) {
+        final OS os = PlatformAliases.resolveOs(consumer.getName());
+        return !os.isUnknown() && os == PlatformAliases.resolveOs(producer.getName());
+    }
+
+    private static boolean sameArch(Named consumer, Named producer) {
+        final Arch arch = PlatformAliases.resolveArch(consumer.getName());
+        return !arch.isUnknown() && arch == PlatformAliases.resolveArch(producer.getName());
+    }
+
+    private static <T extends Named> void preferExactName(MultipleCandidatesDetails<T> details) {
+        final T consumer = details.getConsumerValue();
+        if (consumer == null) {
+            return;
+        }
+        for (T candidate : details.getCandidateValues()) {
+            if (candidate.getName().equals(consumer.getName())) {
+                details.closestMatch(candidate);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Accepts producer OS values that resolve to the same OS as the consumer value.
+     */
+    public static class OsCompatibilityRule implements AttributeCompatibilityRule<OperatingSystemFamily> {
+        @Override
+        public void execute(CompatibilityCheckDetails<OperatingSystemFamily> details) {
+            if (sameOs(details.getConsumerValue(), details.getProducerValue())) {
+                details.compatible();
+            }
+        }
+    }
+
+    /**
+     * Prefers the producer OS value spelled the same as the consumer value.
+     */
+    public static class OsDisambiguationRule implements AttributeDisambiguationRule<OperatingSystemFamily> {
+        @Override
+        public void execute(MultipleCandidatesDetails<OperatingSystemFamily> details) {
+            preferExactName(details);
+        }
+    }
+
+    /**
+     * Accepts producer architecture values that resolve to the same architecture as the consumer value.
+     */
+    public static class ArchCompatibilityRule implements AttributeCompatibilityRule<MachineArchitecture> {
+        @Override
+        public void execute(CompatibilityCheckDetails<MachineArchitecture> details) {
+            if (sameArch(details.getConsumerValue(), details.getProducerValue())) {
+                details.compatible();
+            }
+        }
+    }
+
+    /**
+     * Prefers the producer architecture value spelled the same as the consumer value.
+     */
+    public static class ArchDisambiguationRule implements AttributeDisambiguationRule<MachineArchitecture> {
+        @Override
+        public void execute(MultipleCandidatesDetails<MachineArchitecture> details) {
+            preferExactName(details);
+        }
+    }
+
+    /**
+     * Prefers the producer variant of the requested release, or of the detected release if none is requested.
+     */
+    public static class ReleaseDisambiguationRule implements AttributeDisambiguationRule<String> {
+        private final String releaseId;
+
+        @Inject
+        public ReleaseDisambiguationRule(String releaseId) {
+            this.releaseId = releaseId;
+        }
+
+        @Override
+        public void execute(MultipleCandidatesDetails<String> details) {
+            final String wanted = details.getConsumerValue() != null ? details.getConsumerValue() : releaseId;
+            if (details.getCandidateValues().contains(wanted)) {
+                details.closestMatch(wanted);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.gradle;
+
+import com.tisonkun.os.core.LeveledLoggingProvider;
+import com.tisonkun.os.core.LoggingProvider;
+import org.slf4j.Logger;
+
+/**
+ * A {@link LoggingProvider} backed by an SLF4J {@link Logger}, e.g., a Gradle logger.
+ */
+final class Slf4jLoggingProvider extends LeveledLoggingProvider {
+    private final Logger logger;
+
+    Slf4jLoggingProvider(Logger logger) {
+        this.logger = logger;
+    }
+
+    @Override
+    protected boolean isDebugEnabled() {
+        return logger.isDebugEnabled();
+    }
+
+    @Override
+    protected boolean isInfoEnabled() {
+        return logger.isInfoEnabled();
+    }
+
+    @Override
+    protected boolean isWarnEnabled() {
+        return logger.isWarnEnabled();
+    }
+
+    @Override
+    protected boolean isErrorEnabled() {
+        return logger.isErrorEnabled();
+    }
+
+    @Override
+    protected void debug(String message) {
+        logger.debug(message);
+    }
+
+    @Override
+    public void info(String message) {
+        logger.info(message);
+    }
+
+    @Override
+    protected void warn(String message) {
+        logger.warn(message);
+    }
+
+    @Override
+    protected void error(String message) {
+        logger.error(message);
+    }
+}
@@ -17,9 +17,27 @@
 package com.tisonkun.os.gradle;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import com.tisonkun.os.core.Detector;
+import com.tisonkun.os.core.NativeIndex;
+import com.tisonkun.os.core.PlatformAliases;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
 import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildServiceRegistration;
+import org.gradle.nativeplatform.MachineArchitecture;
+import org.gradle.nativeplatform.OperatingSystemFamily;
 import org.gradle.testfixtures.ProjectBuilder;
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class DetectPluginTest {
     @Test
@@ -45,4 +63,127 @@ class DetectPluginTest {
             assertThat(detector.getRelease()).isNull();
         }
     }
+
+    @Test
+    void nativeIndexListsNativeResources(@TempDir Path projectDir) throws Exception {
+        final Path nativeDir = projectDir.resolve("src/main/resources/META-INF/native");
+        Files.createDirectories(nativeDir.resolve("linux-x86_64"));
+        Files.write(nativeDir.resolve("linux-x86_64/libfoo.so"), new byte[] {1, 2, 3});
+        Files.write(nativeDir.resolve("libfoo.so"), new byte[] {4});
+
+        final Project project =
+                ProjectBuilder.builder().withProjectDir(projectDir.toFile()).build();
+        project.apply(action -> action.plugin("java"));
+        project.apply(action -> action.plugin("com.tisonkun.osdetector"));
+
+        final NativeIndexTask task = (NativeIndexTask) project.getTasks().getByName("nativeIndex");
+        task.generate();
+
+        final Path output = task.getOutputDirectory().get().getAsFile().toPath().resolve(NativeIndex.RESOURCE);
+        try (InputStream in = Files.newInputStream(output)) {
+            final NativeIndex index = NativeIndex.read(in);
+            assertThat(index.getClassifiers()).containsExactly("linux-x86_64");
+            assertThat(index.get("META-INF/native/linux-x86_64/libfoo.so").size).isEqualTo(3);
+            assertThat(index.get("META-INF/native/libfoo.so").classifier).isEmpty();
+        }
+    }
+
+    @Test
+    void projectsShareOneDetection() {
+        final Project root = ProjectBuilder.builder().build();
+        final Project a =
+                ProjectBuilder.builder().withName("a").withParent(root).build();
+        final Project b =
+                ProjectBuilder.builder().withName("b").withParent(root).build();
+        a.apply(action -> action.plugin("com.tisonkun.osdetector"));
+        b.apply(action -> action.plugin("com.tisonkun.osdetector"));
+
+        final OSDetector detectorA = (OSDetector) a.getExtensions().getByName("osdetector");
+        final OSDetector detectorB = (OSDetector) b.getExtensions().getByName("osdetector");
+        assertThat(detectorA.getClassifier()).isEqualTo(detectorB.getClassifier());
+
+        // Both projects registered and queried the same service, which holds the only detection.
+        final Collection<? extends BuildServiceRegistration<?, ?>> registrations =
+                root.getGradle().getSharedServices().getRegistrations();
+        assertThat(registrations).hasSize(1);
+        final DetectionService service =
+                (DetectionService) registrations.iterator().next().getService().get();
+        final Map<String, String> detectedProperties = service.getDetectedProperties(() -> {
+            throw new AssertionError("detected again");
+        });
+        assertThat(detectedProperties).containsEntry(Detector.DETECTED_CLASSIFIER, detectorB.getClassifier());
+    }
+
+    @Test
+    void providersDetectLazily() {
+        final Project project = ProjectBuilder.builder().build();
+        project.apply(action -> action.plugin("com.tisonkun.osdetector"));
+
+        final OSDetector detector = (OSDetector) project.getExtensions().getByName("osdetector");
+        final Provider<String> classifier = detector.getClassifierProvider();
+        final Provider<OSDetector.Release> release = detector.getReleaseProvider();
+        // The shared detection service is registered on the first detection.
+        assertThat(project.getGradle().getSharedServices().getRegistrations()).isEmpty();
+
+        assertThat(classifier.get()).isEqualTo(detector.getClassifier());
+        assertThat(detector.getOsProvider().get()).isEqualTo(detector.getOs());
+        assertThat(detector.getArchProvider().get()).isEqualTo(detector.getArch());
+        assertThat(release.isPresent()).isEqualTo(detector.getOs().equals("linux"));
+    }
+
+    @Test
+    void providersWorkWithConfigurationCache(@TempDir Path projectDir) throws Exception {
+        Files.write(projectDir.resolve("settings.gradle"), Collections.singletonList("rootProject.name = 'cc'"));
+        Files.write(
+                projectDir.resolve("build.gradle"),
+                Arrays.asList(
+                        "plugins { id 'com.tisonkun.osdetector' }",
+                        "abstract class PrintClassifier extends DefaultTask {",
+                        "    @Input abstract Property<String> getClassifier()",
+                        "    @TaskAction void print() { println \"classifier=${classifier.get()}\" }",
+                        "}",
+                        "tasks.register('printClassifier', PrintClassifier) {",
+                        "    classifier = osdetector.classifierProvider",
+                        "}"));
+        final GradleRunner runner = GradleRunner.create()
+                .withProjectDir(projectDir.toFile())
+                .withPluginClasspath()
+                .withArguments("--configuration-cache", "printClassifier");
+        final String classifier = "classifier=" + new Detector(message -> {}).detect().classifier;
+
+        final BuildResult stored = runner.build();
+        assertThat(stored.getOutput()).contains(classifier, "Configuration cache entry stored");
+        final BuildResult reused = runner.build();
+        assertThat(reused.getOutput()).contains(classifier, "Configuration cache entry reused");
+    }
+
+    @Test
+    void namedConfigurationsRequestPlatformAttributes() {
+        final Project project = ProjectBuilder.builder().build();
+        project.apply(action -> action.plugin("com.tisonkun.osdetector"));
+        final OSDetector detector = (OSDetector) project.getExtensions().getByName("osdetector");
+        detector.requestPlatformAttributes("host", "pinned");
+
+        final Configuration host = project.getConfigurations().create("host");
+        final Configuration pinned = project.getConfigurations().create("pinned");
+        final Configuration other = project.getConfigurations().create("other");
+        pinned.getAttributes()
+                .attribute(
+                        MachineArchitecture.ARCHITECTURE_ATTRIBUTE,
+                        project.getObjects().named(MachineArchitecture.class, "riscv64"));
+        host.resolve();
+        pinned.resolve();
+        other.resolve();
+
+        final OperatingSystemFamily os =
+                host.getAttributes().getAttribute(OperatingSystemFamily.OPERATING_SYSTEM_ATTRIBUTE);
+        final MachineArchitecture arch = host.getAttributes().getAttribute(MachineArchitecture.ARCHITECTURE_ATTRIBUTE);
+        assertThat(PlatformAliases.resolveOs(os.getName()).name()).isEqualTo(detector.getOs());
+        assertThat(PlatformAliases.resolveArch(arch.getName()).name()).isEqualTo(detector.getArch());
+        assertThat(pinned.getAttributes()
+                        .getAttribute(MachineArchitecture.ARCHITECTURE_ATTRIBUTE)
+                        .getName())
+                .isEqualTo("riscv64");
+        assertThat(other.getAttributes().isEmpty()).isTrue();
+    }
 }
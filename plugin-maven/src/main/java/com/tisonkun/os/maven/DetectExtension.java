@@ -17,11 +17,11 @@ package com.tisonkun.os.maven;
 
 import com.tisonkun.os.core.DefaultFileOperations;
 import com.tisonkun.os.core.DefaultSystemPropertyOperations;
+import com.tisonkun.os.core.DetectedProperties;
+import com.tisonkun.os.core.DetectionCache;
 import com.tisonkun.os.core.DetectionException;
 import com.tisonkun.os.core.Detector;
-import java.io.IOException;
-import java.io.StringReader;
-import java.io.StringWriter;
+import com.tisonkun.os.core.LoggingProvider;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Properties;
@@ -29,17 +29,9 @@ import javax.inject.Inject;
 import org.apache.maven.AbstractMavenLifecycleParticipant;
 import org.apache.maven.MavenExecutionException;
 import org.apache.maven.execution.MavenSession;
-import org.apache.maven.model.Build;
-import org.apache.maven.model.Dependency;
-import org.apache.maven.model.DependencyManagement;
-import org.apache.maven.model.Exclusion;
-import org.apache.maven.model.Model;
-import org.apache.maven.model.ModelBase;
-import org.apache.maven.model.Plugin;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.logging.Logger;
-import org.codehaus.plexus.util.InterpolationFilterReader;
 
 /**
  * Detects the current operating system and architecture, normalizes them, and sets them to various project
@@ -92,7 +84,11 @@ public class DetectExtension extends AbstractMavenLifecycleParticipant {
     @Inject
     public DetectExtension(final Logger logger) {
         this.logger = logger;
-        this.detector = new Detector(new DefaultSystemPropertyOperations(), new DefaultFileOperations(), logger::debug);
+        this.detector = new Detector(
+                new DefaultSystemPropertyOperations(),
+                new DefaultFileOperations(),
+                new PlexusLoggingProvider(logger).withLevel(LoggingProvider.Level.DEBUG),
+                DetectionCache.getDefault());
     }
 
     @Override
@@ -118,8 +114,10 @@ public class DetectExtension extends AbstractMavenLifecycleParticipant {
         injectSession(session, dict);
         // Perform the interpolation for the properties of all dependencies.
         if (session.getProjects() != null) {
+            // Interpolate each model once, however many modules share it.
+            final ModelInterpolator interpolator = new ModelInterpolator(new PropertyInterpolator(dict));
             for (MavenProject p : session.getProjects()) {
-                interpolate(dict, p);
+                interpolator.interpolate(p);
             }
         }
     }
@@ -129,8 +127,11 @@ public class DetectExtension extends AbstractMavenLifecycleParticipant {
         final Properties sessionProps = new Properties();
         sessionProps.putAll(session.getSystemProperties());
         sessionProps.putAll(session.getUserProperties());
+        final DetectedProperties detected;
         try {
             detector.detect(sessionProps);
+            // Served by the detection cache, so this reads the view published just above.
+            detected = detector.detectProperties();
         } catch (DetectionException e) {
             throw new MavenExecutionException(
                     e.getMessage(), session.getCurrentProject().getFile());
@@ -138,13 +139,13 @@ public class DetectExtension extends AbstractMavenLifecycleParticipant {
 
         // Generate the dictionary.
         final Map<String, String> dict = new LinkedHashMap<>();
-        dict.put(Detector.DETECTED_NAME, sessionProps.getProperty(Detector.DETECTED_NAME));
-        dict.put(Detector.DETECTED_ARCH, sessionProps.getProperty(Detector.DETECTED_ARCH));
-        dict.put(Detector.DETECTED_BITNESS, sessionProps.getProperty(Detector.DETECTED_BITNESS));
-        dict.put(Detector.DETECTED_CLASSIFIER, sessionProps.getProperty(Detector.DETECTED_CLASSIFIER));
-        for (Map.Entry<Object, Object> entry : sessionProps.entrySet()) {
-            if (entry.getKey().toString().startsWith(Detector.DETECTED_RELEASE)) {
-                dict.put(entry.getKey().toString(), entry.getValue().toString());
+        dict.put(Detector.DETECTED_NAME, detected.get(Detector.DETECTED_NAME));
+        dict.put(Detector.DETECTED_ARCH, detected.get(Detector.DETECTED_ARCH));
+        dict.put(Detector.DETECTED_BITNESS, detected.get(Detector.DETECTED_BITNESS));
+        dict.put(Detector.DETECTED_CLASSIFIER, detected.get(Detector.DETECTED_CLASSIFIER));
+        for (int i = 0; i < detected.size(); i++) {
+            if (detected.key(i).startsWith(Detector.DETECTED_RELEASE)) {
+                dict.put(detected.key(i), detected.value(i));
             }
         }
 
@@ -174,105 +175,4 @@ public class DetectExtension extends AbstractMavenLifecycleParticipant {
         // the case where the runtime does not have Aether.
         RepositorySessionInjector.injectRepositorySession(logger, session, dict);
     }
-
-    private static void interpolate(Map<String, String> dict, MavenProject p) {
-        if (p == null) {
-            return;
-        }
-
-        interpolate(dict, p.getParent());
-        interpolate(dict, p.getModel());
-        for (ModelBase model : p.getActiveProfiles()) {
-            interpolate(dict, model);
-        }
-    }
-
-    private static void interpolate(Map<String, String> dict, ModelBase model) {
-        final Properties modelProps = model.getProperties();
-        for (Map.Entry<String, String> e : dict.entrySet()) {
-            modelProps.setProperty(e.getKey(), String.valueOf(e.getValue()));
-        }
-        interpolate(dict, model.getDependencies());
-
-        final DependencyManagement depMgmt = model.getDependencyManagement();
-        if (depMgmt != null) {
-            interpolate(dict, depMgmt.getDependencies());
-        }
-
-        if (model instanceof Model) {
-            final Build build = ((Model) model).getBuild();
-            if (build != null) {
-                for (Plugin bp : build.getPlugins()) {
-                    interpolate(dict, bp.getDependencies());
-                }
-                if (build.getPluginManagement() != null) {
-                    for (Plugin bp : build.getPluginManagement().getPlugins()) {
-                        interpolate(dict, bp.getDependencies());
-                    }
-                }
-            }
-        }
-    }
-
-    private static void interpolate(Map<String, String> dict, Iterable<Dependency> dependencies) {
-        if (dependencies == null) {
-            return;
-        }
-
-        for (Dependency d : dependencies) {
-            d.setGroupId(interpolate(dict, d.getGroupId()));
-            d.setArtifactId(interpolate(dict, d.getArtifactId()));
-            d.setVersion(interpolate(dict, d.getVersion()));
-            d.setClassifier(interpolate(dict, d.getClassifier()));
-            d.setSystemPath(interpolate(dict, d.getSystemPath()));
-            for (Exclusion e : d.getExclusions()) {
-                e.setGroupId(interpolate(dict, e.getGroupId()));
-                e.setArtifactId(interpolate(dict, e.getArtifactId()));
-            }
-        }
-    }
-
-    private static String interpolate(Map<String, String> dict, String value) {
-        if (value == null) {
-            return null;
-        }
-
-        for (; ; ) {
-            if (!value.contains("${")) {
-                // Nothing to interpolate.
-                break;
-            }
-
-            @SuppressWarnings({"unchecked", "rawtypes"})
-            final InterpolationFilterReader reader =
-                    new InterpolationFilterReader(new StringReader(value), (Map<String, Object>) (Map) dict);
-            final StringWriter writer = new StringWriter(value.length());
-            for (; ; ) {
-                final int ch;
-                try {
-                    ch = reader.read();
-                } catch (IOException e) {
-                    // Should not reach here.
-                    throw (Error) new Error(e);
-                }
-
-                if (ch == -1) {
-                    break;
-                }
-                writer.write(ch);
-            }
-
-            final String newValue = writer.toString();
-            if (value.equals(newValue)) {
-                // No interpolatable properties left.
-                break;
-            }
-
-            // Interpolated at least one variable.
-            // Try again just in case the interpolation introduced another variable.
-            value = newValue;
-        }
-
-        return value;
-    }
 }
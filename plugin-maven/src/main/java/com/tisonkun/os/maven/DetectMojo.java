@@ -18,6 +18,7 @@ package com.tisonkun.os.maven;
 
 import com.tisonkun.os.core.DefaultFileOperations;
 import com.tisonkun.os.core.DefaultSystemPropertyOperations;
+import com.tisonkun.os.core.DetectionCache;
 import com.tisonkun.os.core.DetectionException;
 import com.tisonkun.os.core.Detector;
 import org.apache.maven.plugin.AbstractMojo;
@@ -54,9 +55,6 @@ public class DetectMojo extends AbstractMojo {
     @Parameter(defaultValue = "${project}", readonly = true)
     private MavenProject project;
 
-    private final Detector detector = new Detector(
-            new DefaultSystemPropertyOperations(), new DefaultFileOperations(), message -> getLog().info(message));
-
     /**
      * Create a mojo instance to detect OS information.
      */
@@ -64,6 +62,12 @@ public class DetectMojo extends AbstractMojo {
 
     @Override
     public void execute() throws MojoExecutionException {
+        // The log is injected after construction, so create the detector here.
+        final Detector detector = new Detector(
+                new DefaultSystemPropertyOperations(),
+                new DefaultFileOperations(),
+                new MavenLoggingProvider(getLog()),
+                DetectionCache.getDefault());
         try {
             detector.detect(project.getProperties());
         } catch (DetectionException e) {
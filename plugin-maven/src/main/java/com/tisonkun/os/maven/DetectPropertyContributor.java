@@ -16,9 +16,11 @@
 
 package com.tisonkun.os.maven;
 
+import com.tisonkun.os.core.DefaultSystemPropertyOperations;
+import com.tisonkun.os.core.DetectionCache;
 import com.tisonkun.os.core.Detector;
 import com.tisonkun.os.core.FileOperationProvider;
-import com.tisonkun.os.core.SystemPropertyOperationProvider;
+import com.tisonkun.os.core.LoggingProvider;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
@@ -53,12 +55,15 @@ public class DetectPropertyContributor implements PropertyContributor {
         final Properties props = new Properties();
         props.putAll(map);
 
-        final Detector detector =
-                new Detector(new SimpleSystemPropertyOperations(map), new SimpleFileOperations(), logger::debug);
+        final Detector detector = new Detector(
+                new SimpleSystemPropertyOperations(map),
+                new SimpleFileOperations(),
+                new PlexusLoggingProvider(logger).withLevel(LoggingProvider.Level.DEBUG),
+                DetectionCache.getDefault());
         detector.detect(props);
     }
 
-    private static class SimpleSystemPropertyOperations implements SystemPropertyOperationProvider {
+    private static class SimpleSystemPropertyOperations extends DefaultSystemPropertyOperations {
         final Map<String, String> map;
 
         private SimpleSystemPropertyOperations(Map<String, String> map) {
@@ -66,19 +71,15 @@ public class DetectPropertyContributor implements PropertyContributor {
         }
 
         @Override
-        public String getSystemProperty(String name) {
-            return System.getProperty(name);
-        }
-
-        @Override
-        public String getSystemProperty(String name, String def) {
-            return System.getProperty(name, def);
+        public String setSystemProperty(String name, String value) {
+            map.put(name, value);
+            return super.setSystemProperty(name, value);
         }
 
         @Override
-        public String setSystemProperty(String name, String value) {
-            map.put(name, value);
-            return System.setProperty(name, value);
+        public void setSystemProperties(Map<String, String> properties) {
+            map.putAll(properties);
+            super.setSystemProperties(properties);
         }
     }
 
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.maven;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Exclusion;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.ModelBase;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Interpolates the detected properties into the models of a reactor.
+ *
+ * <p>Modules of a reactor usually share their parents, so the visited models are tracked by identity and
+ * each model is interpolated once, instead of once per child.
+ */
+final class ModelInterpolator {
+    private final PropertyInterpolator interpolator;
+    private final Set<ModelBase> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    ModelInterpolator(PropertyInterpolator interpolator) {
+        this.interpolator = interpolator;
+    }
+
+    void interpolate(MavenProject p) {
+        if (p == null || visited.contains(p.getModel())) {
+            // The parents and profiles of a visited model are visited along with it.
+            return;
+        }
+
+        interpolate(p.getParent());
+        interpolate(p.getModel());
+        for (ModelBase model : p.getActiveProfiles()) {
+            interpolate(model);
+        }
+    }
+
+    private void interpolate(ModelBase model) {
+        if (!visited.add(model)) {
+            return;
+        }
+
+        final Properties modelProps = model.getProperties();
+        for (Map.Entry<String, String> e : interpolator.getProperties().entrySet()) {
+            modelProps.setProperty(e.getKey(), String.valueOf(e.getValue()));
+        }
+        interpolate(model.getDependencies());
+
+        final DependencyManagement depMgmt = model.getDependencyManagement();
+        if (depMgmt != null) {
+            interpolate(depMgmt.getDependencies());
+        }
+
+        if (model instanceof Model) {
+            final Build build = ((Model) model).getBuild();
+            if (build != null) {
+                for (Plugin bp : build.getPlugins()) {
+                    interpolate(bp.getDependencies());
+                }
+                if (build.getPluginManagement() != null) {
+                    for (Plugin bp : build.getPluginManagement().getPlugins()) {
+                        interpolate(bp.getDependencies());
+                    }
+                }
+            }
+        }
+    }
+
+    private void interpolate(Iterable<Dependency> dependencies) {
+        if (dependencies == null) {
+            return;
+        }
+
+        for (Dependency d : dependencies) {
+            d.setGroupId(interpolator.interpolate(d.getGroupId()));
+            d.setArtifactId(interpolator.interpolate(d.getArtifactId()));
+            d.setVersion(interpolator.interpolate(d.getVersion()));
+            d.setClassifier(interpolator.interpolate(d.getClassifier()));
+            d.setSystemPath(interpolator.interpolate(d.getSystemPath()));
+            for (Exclusion e : d.getExclusions()) {
+                e.setGroupId(interpolator.interpolate(e.getGroupId()));
+                e.setArtifactId(interpolator.interpolate(e.getArtifactId()));
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.maven;
+
+import java.util.Map;
+
+/**
+ * Replaces the {@code ${key}} references to a fixed dictionary in a single pass.
+ *
+ * <p>Strings are first scanned for {@code ${} followed by the common prefix of all keys, e.g.,
+ * {@code ${os.detected}}, so that strings not referring to the dictionary are returned as is without
+ * any allocation. Unknown keys are left untouched, and the same instance is returned if nothing changes.
+ */
+final class PropertyInterpolator {
+    private final Map<String, String> properties;
+    private final String marker;
+
+    PropertyInterpolator(Map<String, String> properties) {
+        this.properties = properties;
+        this.marker = "${" + commonPrefix(properties);
+    }
+
+    /**
+     * Returns the dictionary as given.
+     */
+    Map<String, String> getProperties() {
+        return properties;
+    }
+
+    /**
+     * Returns the given value with the dictionary references replaced, or the value itself if it has none.
+     */
+    String interpolate(String value) {
+        if (value == null) {
+            return null;
+        }
+        int start = value.indexOf(marker);
+        if (start < 0) {
+            // Nothing to interpolate.
+            return value;
+        }
+
+        StringBuilder out = null;
+        int last = 0;
+        while (start >= 0) {
+            final int end = value.indexOf('}', start + 2);
+            if (end < 0) {
+                break;
+            }
+            final String replacement = properties.get(value.substring(start + 2, end));
+            if (replacement == null) {
+                start = value.indexOf(marker, start + 2);
+                continue;
+            }
+            if (out == null) {
+                out = new StringBuilder(value.length() + replacement.length());
+            }
+            out.append(value, last, start).append(replacement);
+            last = end + 1;
+            start = value.indexOf(marker, last);
+        }
+        if (out == null) {
+            return value;
+        }
+        return out.append(value, last, value.length()).toString();
+    }
+
+    private static String commonPrefix(Map<String, String> properties) {
+        String prefix = null;
+        for (String key : properties.keySet()) {
+            if (prefix == null) {
+                prefix = key;
+                continue;
+            }
+            int i = 0;
+            final int n = Math.min(prefix.length(), key.length());
+            while (i < n && prefix.charAt(i) == key.charAt(i)) {
+                i++;
+            }
+            prefix = prefix.substring(0, i);
+        }
+        return prefix == null ? "" : prefix;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.maven;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Profile;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Test;
+
+class ModelInterpolatorTest {
+    private static final int DEPTH = 8;
+    private static final int WIDTH = 200;
+
+    @Test
+    void testEachModelIsInterpolatedOnce() {
+        // A chain of DEPTH parents, with WIDTH modules under each of them.
+        final List<MavenProject> reactor = new ArrayList<>();
+        MavenProject parent = null;
+        for (int depth = 0; depth < DEPTH; depth++) {
+            final MavenProject aggregator = newProject("parent-" + depth, parent);
+            reactor.add(aggregator);
+            for (int i = 0; i < WIDTH; i++) {
+                reactor.add(newProject("module-" + depth + "-" + i, aggregator));
+            }
+            parent = aggregator;
+        }
+        final Profile profile = new Profile();
+        profile.addDependency(newDependency());
+        parent.setActiveProfiles(Collections.singletonList(profile));
+
+        final ModelInterpolator interpolator = new ModelInterpolator(
+                new PropertyInterpolator(Collections.singletonMap("os.detected.classifier", "linux-x86_64")));
+        for (MavenProject p : reactor) {
+            interpolator.interpolate(p);
+        }
+        for (MavenProject p : reactor) {
+            assertThat(p.getDependencies().get(0).getClassifier()).isEqualTo("linux-x86_64");
+            assertThat(p.getProperties().getProperty("os.detected.classifier")).isEqualTo("linux-x86_64");
+        }
+        assertThat(profile.getDependencies().get(0).getClassifier()).isEqualTo("linux-x86_64");
+
+        // Put the placeholders back: a model that was already interpolated must be left untouched.
+        for (MavenProject p : reactor) {
+            p.getDependencies().get(0).setClassifier("${os.detected.classifier}");
+        }
+        profile.getDependencies().get(0).setClassifier("${os.detected.classifier}");
+        for (MavenProject p : reactor) {
+            interpolator.interpolate(p);
+        }
+        for (MavenProject p : reactor) {
+            assertThat(p.getDependencies().get(0).getClassifier()).isEqualTo("${os.detected.classifier}");
+        }
+        assertThat(profile.getDependencies().get(0).getClassifier()).isEqualTo("${os.detected.classifier}");
+    }
+
+    private static MavenProject newProject(String artifactId, MavenProject parent) {
+        final Model model = new Model();
+        model.setGroupId("com.example");
+        model.setArtifactId(artifactId);
+        model.addDependency(newDependency());
+        final MavenProject project = new MavenProject(model);
+        project.setParent(parent);
+        return project;
+    }
+
+    private static Dependency newDependency() {
+        final Dependency dependency = new Dependency();
+        dependency.setGroupId("io.netty");
+        dependency.setArtifactId("netty-tcnative");
+        dependency.setClassifier("${os.detected.classifier}");
+        return dependency;
+    }
+}
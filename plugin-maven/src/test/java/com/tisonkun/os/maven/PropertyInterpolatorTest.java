@@ -0,0 +1,55 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.os.maven;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class PropertyInterpolatorTest {
+    private static PropertyInterpolator newInterpolator() {
+        final Map<String, String> dict = new LinkedHashMap<>();
+        dict.put("os.detected.name", "linux");
+        dict.put("os.detected.arch", "x86_64");
+        dict.put("os.detected.classifier", "linux-x86_64");
+        return new PropertyInterpolator(dict);
+    }
+
+    @Test
+    void testInterpolate() {
+        final PropertyInterpolator interpolator = newInterpolator();
+        assertThat(interpolator.interpolate("${os.detected.classifier}")).isEqualTo("linux-x86_64");
+        assertThat(interpolator.interpolate("netty-${os.detected.name}-${os.detected.arch}.jar"))
+                .isEqualTo("netty-linux-x86_64.jar");
+        assertThat(interpolator.interpolate("${os.detected.unknown}-${os.detected.arch}"))
+                .isEqualTo("${os.detected.unknown}-x86_64");
+        assertThat(interpolator.interpolate("${os.detected.name")).isEqualTo("${os.detected.name");
+        assertThat(interpolator.interpolate(null)).isNull();
+    }
+
+    @Test
+    void testUnchangedValueIsReturnedAsIs() {
+        final PropertyInterpolator interpolator = newInterpolator();
+        final String plain = "io.netty";
+        final String other = "${project.version}";
+        final String unknown = "${os.detected.unknown}";
+        assertThat(interpolator.interpolate(plain)).isSameAs(plain);
+        assertThat(interpolator.interpolate(other)).isSameAs(other);
+        assertThat(interpolator.interpolate(unknown)).isSameAs(unknown);
+    }
+}
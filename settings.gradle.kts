@@ -18,3 +18,4 @@ rootProject.name = "os-detector"
 include("lib")
 include("plugin-maven")
 include("plugin-gradle")
+include("benchmarks")